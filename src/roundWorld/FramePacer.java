@@ -0,0 +1,141 @@
+package roundWorld;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Waits for update and frame deadlines without keeping a core busy. The
+ * thread is parked until shortly before the deadline and then spins for the
+ * remaining time, which keeps the wake-up accurate. The spin window grows
+ * whenever a wake-up is later than the jitter bound allows, and slowly shrinks
+ * again while parking is accurate. Statistics on how much time was spent
+ * parked and how late the wake-ups were are kept for display
+ *
+ * @author Andrew Black
+ *
+ */
+public class FramePacer {
+	/**
+	 * The default longest acceptable delay past a deadline, in nanoseconds
+	 */
+	public static final long DEFAULT_JITTER_BOUND = 250000;
+	/**
+	 * Limits and starting value for the time spent spinning before a deadline,
+	 * in nanoseconds
+	 */
+	private static final long MIN_SPIN_WINDOW = 50000, MAX_SPIN_WINDOW = 4000000, START_SPIN_WINDOW = 300000;
+
+	/**
+	 * The longest acceptable delay past a deadline, in nanoseconds
+	 */
+	private long jitterBound;
+	/**
+	 * How long before a deadline to stop parking and start spinning
+	 */
+	private long spinWindow;
+	/**
+	 * Statistics since they were last reset: time parked, number of waits,
+	 * total and largest delay past the deadline, and when the reset happened
+	 */
+	private long parkedTime, waits, totalJitter, maxJitter, statisticsStart;
+
+	/**
+	 * Constructor sets the jitter bound and starts the statistics
+	 *
+	 * @param inJitterBound
+	 *            The longest acceptable delay past a deadline, in nanoseconds
+	 */
+	public FramePacer(long inJitterBound) {
+		jitterBound = inJitterBound;
+		spinWindow = Math.max(START_SPIN_WINDOW, jitterBound);
+		resetStatistics();
+	}
+
+	/**
+	 * Blocks until the given deadline. Returns at once if it has already
+	 * passed
+	 *
+	 * @param deadline
+	 *            The System.nanoTime value to wait for
+	 */
+	public void waitUntil(long deadline) {
+		long now = System.nanoTime();
+		if (now >= deadline) {
+			return;
+		}
+
+		long parkUntil = deadline - spinWindow;
+		if (now < parkUntil) {
+			LockSupport.parkNanos(parkUntil - now);
+			long woken = System.nanoTime();
+			parkedTime += woken - now;
+			now = woken;
+
+			if (now - deadline > jitterBound) {
+				spinWindow = Math.min(spinWindow * 2, MAX_SPIN_WINDOW);
+			} else if (deadline - now > spinWindow / 2) {
+				spinWindow = Math.max(spinWindow - spinWindow / 8, MIN_SPIN_WINDOW);
+			}
+		}
+
+		while (now < deadline) {
+			Thread.yield();
+			now = System.nanoTime();
+		}
+
+		long jitter = now - deadline;
+		waits++;
+		totalJitter += jitter;
+		maxJitter = Math.max(maxJitter, jitter);
+	}
+
+	/**
+	 * @return The share of time since the statistics were reset that was spent
+	 *         parked rather than running, as a percentage. The old busy loop
+	 *         never parked, so this is the CPU time saved
+	 */
+	public int getCpuSaved() {
+		long elapsed = System.nanoTime() - statisticsStart;
+		if (elapsed <= 0) {
+			return 0;
+		}
+		return (int) (parkedTime * 100 / elapsed);
+	}
+
+	/**
+	 * @return The mean delay past a deadline in nanoseconds
+	 */
+	public long getAverageJitter() {
+		if (waits == 0) {
+			return 0;
+		}
+		return totalJitter / waits;
+	}
+
+	/**
+	 * @return The largest delay past a deadline in nanoseconds
+	 */
+	public long getMaxJitter() {
+		return maxJitter;
+	}
+
+	/**
+	 * Returns a short summary of the statistics for display
+	 *
+	 * @return The CPU time saved and the mean and largest jitter
+	 */
+	public String getReport() {
+		return getCpuSaved() + "% CPU saved, jitter " + (getAverageJitter() / 1000) + " us (max " + (getMaxJitter() / 1000) + " us)";
+	}
+
+	/**
+	 * Starts a new period for the statistics
+	 */
+	public void resetStatistics() {
+		parkedTime = 0;
+		waits = 0;
+		totalJitter = 0;
+		maxJitter = 0;
+		statisticsStart = System.nanoTime();
+	}
+
+}
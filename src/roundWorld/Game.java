@@ -4,10 +4,19 @@ import java.awt.Canvas;
 import java.awt.Dimension;
 import java.awt.Graphics;
 import java.awt.image.BufferStrategy;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.swing.JFrame;
+import roundWorld.graphics.FrameSnapshot;
 import roundWorld.graphics.Screen;
+import roundWorld.graphics.SnapshotBuffer;
 import roundWorld.stage.Level;
 import roundWorld.input.InputHandler;
+import roundWorld.input.InputPlayer;
+import roundWorld.input.InputRecorder;
+import roundWorld.input.KeyboardInput;
 
 /**
  * The main game instance. Manages the canvas, JFrame, and game engine
@@ -20,19 +29,38 @@ public class Game extends Canvas implements Runnable {
 	public static final int WINDOW_WIDTH = 800, WINDOW_HEIGHT = 480;
 	public static final Dimension DIMENSION = new Dimension(WINDOW_WIDTH, WINDOW_HEIGHT);
 	public static final String NAME = "Knight of the Round World";
+	/**
+	 * The time between two updates in nanoseconds
+	 */
+	private static final double NS_PER_TICK = 1000000000D / 60;
 
 	/**
 	 * The JFrame window. Static so that it can be modified with statistics info
 	 */
 	private static JFrame frame;
 	/**
-	 * Main game thread
+	 * Main game thread, which runs the simulation
 	 */
 	private Thread thread;
+	/**
+	 * Thread that draws the published frame snapshots. Only started when
+	 * rendering runs separately from the simulation
+	 */
+	private Thread renderThread;
 	/**
 	 * Listener for keyboard input
 	 */
 	private InputHandler input;
+	/**
+	 * Plays back the recording named by the roundworld.replay property in
+	 * place of the keyboard, or null if the game is played from the keyboard
+	 */
+	private InputPlayer replay;
+	/**
+	 * Records the game's input into the file named by the roundworld.record
+	 * property, or null if the game is not being recorded
+	 */
+	private InputRecorder recorder;
 	/**
 	 * Level class drives the game logic
 	 */
@@ -41,52 +69,154 @@ public class Game extends Canvas implements Runnable {
 	 * Screen class holds and draws all graphics
 	 */
 	private Screen screen;
+	/**
+	 * Passes the frame recorded after each update from the game thread to the
+	 * render thread
+	 */
+	private SnapshotBuffer snapshots;
+	/**
+	 * Whether rendering happens on its own thread. Set on multi-core machines,
+	 * unless the roundworld.singleThread property is set
+	 */
+	private boolean isRenderThreaded;
+	/**
+	 * Whether frames are interpolated between the last two updates, set by the
+	 * roundworld.interpolate property. Interpolated frames are no longer tied
+	 * to updates, and are drawn as often as nsPerFrame allows
+	 */
+	private boolean isInterpolated;
+	/**
+	 * The shortest time between two interpolated frames in nanoseconds, from
+	 * the roundworld.fps property. Zero leaves the frame rate uncapped
+	 */
+	private long nsPerFrame;
+	/**
+	 * Sleeps the game thread between updates, and the render thread between
+	 * interpolated frames, instead of spinning
+	 */
+	private FramePacer pacer, renderPacer;
 	/**
 	 * Running boolean controls the game loop
 	 */
-	private boolean running;
+	private volatile boolean running;
+	/**
+	 * The number of updates run so far, used to stamp each frame snapshot
+	 */
+	private long tickCount;
+	/**
+	 * Frames drawn since the statistics were last displayed. Counted by the
+	 * render thread and read by the game thread
+	 */
+	private AtomicInteger frames;
 
 	/**
 	 * Constructor adds the Game class to the Thread and InputHandler. It passes
-	 * the InputHandler object to Level and instantiates the Screen
+	 * the InputHandler object to Level and instantiates the Screen. Input
+	 * comes from the keyboard, or from the recording named by the
+	 * roundworld.replay property, and is recorded into the file named by the
+	 * roundworld.record property if it is set
 	 */
 	public Game() {
 		setSize(DIMENSION);
-		thread = new Thread(this);
-		input = new InputHandler(this);
-		level = new Level(input);
+		thread = new Thread(this, NAME);
+		renderThread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				renderLoop();
+			}
+		}, NAME + " renderer");
+		input = new InputHandler();
+		replay = openReplay(System.getProperty("roundworld.replay"));
+		if (replay == null) {
+			new KeyboardInput(this, input);
+			level = new Level(input);
+		} else {
+			level = new Level(input, replay.getSeed());
+		}
+		recorder = openRecorder(System.getProperty("roundworld.record"), level.getSeed());
+		input.setRecorder(recorder);
 		screen = new Screen();
+		snapshots = new SnapshotBuffer();
+		isRenderThreaded = Runtime.getRuntime().availableProcessors() > 1 && !Boolean.getBoolean("roundworld.singleThread");
+		isInterpolated = Boolean.getBoolean("roundworld.interpolate");
+		int framesPerSecond = Integer.getInteger("roundworld.fps", 0);
+		nsPerFrame = (framesPerSecond > 0) ? 1000000000L / framesPerSecond : 0;
+		long jitterBound = Long.getLong("roundworld.jitterMicros", FramePacer.DEFAULT_JITTER_BOUND / 1000) * 1000;
+		pacer = new FramePacer(jitterBound);
+		renderPacer = new FramePacer(jitterBound);
 		running = false;
+		tickCount = 0;
+		frames = new AtomicInteger();
 	}
 
 	/**
-	 * Starts the game loop as well as the main thread
+	 * Starts the game loop as well as the main thread, and the render thread
+	 * if rendering is separate. The game is stopped when the application
+	 * exits, so that a recording is finished properly
 	 */
 	public void start() {
 		running = true;
 		thread.start();
+		if (isRenderThreaded) {
+			renderThread.start();
+		}
+
+		Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+			@Override
+			public void run() {
+				stop();
+			}
+		}, NAME + " shutdown"));
+	}
+
+	/**
+	 * Stops the game loop and waits for the current update to finish. If the
+	 * game is being recorded, the recording is then ended at the last update
+	 * run, so that a replay runs every update of the session
+	 */
+	public void stop() {
+		running = false;
+		try {
+			thread.join(1000);
+		} catch (InterruptedException e) {
+			e.printStackTrace();
+		}
+
+		if (recorder != null) {
+			try {
+				recorder.close(level.getTick());
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+			recorder = null;
+		}
 	}
 
 	/**
 	 * Contains the main game loop which runs until the application is closed.
-	 * It keeps track of when the game should be updated, or rendered and calls
-	 * those methods when necessary. Statistics for update and frame rate are
-	 * tracked and displayed to the window frame
+	 * It keeps track of when the game should be updated and calls tick when
+	 * necessary. Each update publishes a frame snapshot, which is drawn here
+	 * or, on a multi-core machine, by the render thread so that slow frames do
+	 * not hold back the updates. When frames are interpolated, the fraction of
+	 * an update left over in delta places the frame between the last two
+	 * updates. Between passes the thread sleeps until the next update or
+	 * frame is due. Statistics for update and frame rate, and for the pacing,
+	 * are tracked and displayed to the window frame
 	 */
 	@Override
 	public void run() {
 		long lastTime = System.nanoTime();
-		double nsPerTick = 1000000000D / 60;
 
 		int ticks = 0;
-		int frames = 0;
 
 		long lastTimer = System.currentTimeMillis();
 		double delta = 0;
+		long nextFrameTime = lastTime;
+		FrameSnapshot snapshot = null;
 
 		while (running) {
 			long now = System.nanoTime();
-			delta += (now - lastTime) / nsPerTick;
+			delta += (now - lastTime) / NS_PER_TICK;
 			lastTime = now;
 			boolean shouldRender = false;
 
@@ -97,49 +227,177 @@ public class Game extends Canvas implements Runnable {
 				shouldRender = true;
 			}
 
-			if (shouldRender) {
-				frames++;
-				render();
+			if (!isRenderThreaded) {
+				FrameSnapshot latest = snapshots.takeLatest(0);
+				if (latest != null) {
+					snapshot = latest;
+				}
+
+				if (isInterpolated && now >= nextFrameTime) {
+					nextFrameTime = now + nsPerFrame;
+					render(snapshot, delta);
+				} else if (shouldRender && !isInterpolated) {
+					render(snapshot, 1);
+				}
 			}
 
 			if (System.currentTimeMillis() - lastTimer >= 1000) {
 				lastTimer += 1000;
 				if (frame != null) {
-					frame.setTitle(NAME + " | " + ticks + " ticks, " + frames + " frames");
+					frame.setTitle(NAME + " | " + ticks + " ticks, " + frames.getAndSet(0) + " frames | " + pacer.getReport());
 				}
-				frames = 0;
+				pacer.resetStatistics();
 				ticks = 0;
 			}
+
+			long deadline = now + (long) ((1 - delta) * NS_PER_TICK);
+			if (!isRenderThreaded && isInterpolated) {
+				deadline = Math.min(deadline, nextFrameTime);
+			}
+			pacer.waitUntil(deadline);
 		}
 	}
 
 	/**
-	 * Calls the update method of Level, so the game can be updated
+	 * Calls the update method of Level, so the game can be updated, and then
+	 * records and publishes the resulting frame
 	 */
 	public void tick() {
+		if (replay != null) {
+			try {
+				replay.feed(level.getTick() + 1, input);
+			} catch (IOException e) {
+				e.printStackTrace();
+				replay = null;
+			}
+		}
 		level.update();
+
+		FrameSnapshot snapshot = snapshots.getBackSnapshot();
+		snapshot.clear(++tickCount);
+		level.render(snapshot);
+		snapshots.publish();
+	}
+
+	/**
+	 * Runs on the render thread. Waits for each newly published snapshot and
+	 * draws it, skipping any that were replaced before they could be drawn.
+	 * When frames are interpolated it instead keeps drawing the newest
+	 * snapshot at the frame rate, placed between its last two updates by how
+	 * long ago it was recorded
+	 */
+	private void renderLoop() {
+		FrameSnapshot snapshot = null;
+		long nextFrameTime = System.nanoTime();
+
+		while (running) {
+			if (!isInterpolated) {
+				render(snapshots.takeLatest(100), 1);
+				continue;
+			}
+
+			FrameSnapshot latest = snapshots.takeLatest((snapshot == null) ? 100 : 0);
+			if (latest != null) {
+				snapshot = latest;
+			}
+			if (snapshot == null) {
+				continue;
+			}
+
+			double alpha = (System.nanoTime() - snapshot.getRecordTime()) / NS_PER_TICK;
+			render(snapshot, Math.min(alpha, 1));
+
+			nextFrameTime += nsPerFrame;
+			long now = System.nanoTime();
+			if (nextFrameTime > now) {
+				renderPacer.waitUntil(nextFrameTime);
+			} else {
+				nextFrameTime = now;
+				Thread.yield();
+			}
+		}
 	}
 
 	/**
-	 * Creates a buffer strategy for rendering graphics, and passes the Screen
-	 * class to Level so that it can be updated with the current frame. Screens
-	 * image variable is rendered to the buffered strategy, which is then
-	 * disposed so the next frame can render
+	 * Creates a buffer strategy for rendering graphics, and passes the frame
+	 * snapshot to Screen so that it can be drawn. Screens image variable is
+	 * rendered to the buffered strategy, which is then disposed so the next
+	 * frame can render. If the buffer strategy or an accelerated screen image
+	 * loses its contents before the frame is shown, the frame is drawn again
+	 * 
+	 * @param snapshot
+	 *            The frame to draw, or null if there is nothing new to draw
+	 * @param alpha
+	 *            How far between the previous and current update to draw the
+	 *            frame, from 0 to 1
 	 */
-	public void render() {
+	public void render(FrameSnapshot snapshot, double alpha) {
+		if (snapshot == null) {
+			return;
+		}
+
 		BufferStrategy bs = getBufferStrategy();
 		if (bs == null) {
 			createBufferStrategy(3);
 			return;
 		}
 
-		Graphics graphics = bs.getDrawGraphics();
+		do {
+			screen.draw(snapshot, alpha);
+
+			do {
+				Graphics graphics = bs.getDrawGraphics();
+				graphics.drawImage(screen.getImage(), 0, 0, getWidth(), getHeight(), null);
+				graphics.dispose();
+			} while (bs.contentsRestored());
+
+			bs.show();
+		} while (bs.contentsLost() || screen.isContentsLost());
+		frames.incrementAndGet();
+	}
+
+	/**
+	 * Opens a recording to replay
+	 * 
+	 * @param path
+	 *            The file of the recording, or null for none
+	 * @return The player for the recording, or null if there is none or it
+	 *         could not be opened
+	 */
+	private static InputPlayer openReplay(String path) {
+		if (path == null) {
+			return null;
+		}
+
+		try {
+			return new InputPlayer(new FileInputStream(path));
+		} catch (IOException e) {
+			e.printStackTrace();
+			return null;
+		}
+	}
+
+	/**
+	 * Creates a file to record the game's input into
+	 * 
+	 * @param path
+	 *            The file to record into, or null for none
+	 * @param seed
+	 *            The seed of the Level being recorded
+	 * @return The recorder, or null if there is none or the file could not be
+	 *         created
+	 */
+	private static InputRecorder openRecorder(String path, long seed) {
+		if (path == null) {
+			return null;
+		}
 
-		level.render(screen);
-		
-		graphics.drawImage(screen.getImage(), 0, 0, getWidth(), getHeight(), null);
-		graphics.dispose();
-		bs.show();
+		try {
+			return new InputRecorder(new FileOutputStream(path), seed);
+		} catch (IOException e) {
+			e.printStackTrace();
+			return null;
+		}
 	}
 
 	/**
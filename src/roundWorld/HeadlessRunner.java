@@ -0,0 +1,168 @@
+package roundWorld;
+
+import java.awt.image.RenderedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+
+import javax.imageio.ImageIO;
+
+import roundWorld.graphics.FrameSnapshot;
+import roundWorld.graphics.Screen;
+import roundWorld.input.InputHandler;
+import roundWorld.input.Keys;
+import roundWorld.stage.Level;
+
+/**
+ * Runs the game without a window, for measuring rendering throughput on
+ * machines with no display. Level is updated and rendered into an in-memory
+ * Screen as fast as possible, the frame rate is reported once a second, and
+ * selected frames can be written to disk. The Z key is pressed at a fixed
+ * interval so that the game moves on from the title screen and tips into the
+ * levels
+ *
+ * Settings are read from system properties: roundworld.ticks is the number of
+ * updates to run, roundworld.dumpFrames is a comma separated list of the
+ * updates to save, and roundworld.dumpDir is the directory they are saved to
+ *
+ * @author Andrew Black
+ *
+ */
+public class HeadlessRunner {
+	/**
+	 * The default number of updates to run, one minute of game time
+	 */
+	public static final int DEFAULT_TICKS = 3600;
+	/**
+	 * The number of updates between presses of the Z key
+	 */
+	private static final int KEY_INTERVAL = 60;
+
+	/**
+	 * Passes the scripted key presses to Level and Player
+	 */
+	private InputHandler input;
+	/**
+	 * The game being run
+	 */
+	private Level level;
+	/**
+	 * The graphics engine, drawing into its own image
+	 */
+	private Screen screen;
+	/**
+	 * The snapshot each update is recorded into
+	 */
+	private FrameSnapshot frame;
+	/**
+	 * The updates whose frames are saved, and the directory they are saved to
+	 */
+	private Set<Long> dumpTicks;
+	private File dumpDir;
+
+	/**
+	 * Constructor sets up the game without a window
+	 *
+	 * @param inDumpTicks
+	 *            The updates whose frames are saved
+	 * @param inDumpDir
+	 *            The directory the frames are saved to
+	 */
+	public HeadlessRunner(Set<Long> inDumpTicks, File inDumpDir) {
+		input = new InputHandler();
+		level = new Level(input);
+		screen = new Screen();
+		frame = new FrameSnapshot();
+		dumpTicks = inDumpTicks;
+		dumpDir = inDumpDir;
+	}
+
+	/**
+	 * Updates and draws the game the given number of times without pausing,
+	 * printing the frame rate each second and a summary at the end
+	 *
+	 * @param ticks
+	 *            The number of updates to run
+	 * @throws IOException
+	 *             If a frame could not be saved
+	 */
+	public void run(int ticks) throws IOException {
+		long start = System.nanoTime();
+		long secondStart = start;
+		long updateTime = 0;
+		long drawTime = 0;
+		int frames = 0;
+
+		for (long tick = 1; tick <= ticks; tick++) {
+			if (tick % KEY_INTERVAL == 1) {
+				input.pressKey(Keys.Z);
+			} else if (tick % KEY_INTERVAL == 2) {
+				input.releaseKey(Keys.Z);
+			}
+
+			long updateStart = System.nanoTime();
+			level.update();
+			frame.clear(tick);
+			level.render(frame);
+
+			long drawStart = System.nanoTime();
+			screen.draw(frame);
+			long now = System.nanoTime();
+
+			updateTime += drawStart - updateStart;
+			drawTime += now - drawStart;
+			frames++;
+
+			if (dumpTicks.contains(tick)) {
+				dumpFrame(tick);
+			}
+
+			if (now - secondStart >= 1000000000L) {
+				System.out.println(frames + " fps");
+				frames = 0;
+				secondStart = now;
+			}
+		}
+
+		double seconds = (System.nanoTime() - start) / 1e9;
+		System.out.printf("%d frames in %.2f s, %.1f fps, update %.3f ms, draw %.3f ms%n", ticks, seconds, ticks / seconds,
+				updateTime / 1e6 / ticks, drawTime / 1e6 / ticks);
+	}
+
+	/**
+	 * Saves the image of the current frame as a PNG
+	 *
+	 * @param tick
+	 *            The update the frame belongs to, used in the file name
+	 * @throws IOException
+	 *             If the image could not be written
+	 */
+	private void dumpFrame(long tick) throws IOException {
+		dumpDir.mkdirs();
+		ImageIO.write((RenderedImage) screen.getImage(), "png", new File(dumpDir, "frame" + tick + ".png"));
+	}
+
+	/**
+	 * Main method for running the game headless
+	 *
+	 * @param args
+	 * @throws IOException
+	 *             If a frame could not be saved
+	 */
+	public static void main(String[] args) throws IOException {
+		System.setProperty("java.awt.headless", "true");
+
+		Set<Long> dumpTicks = new HashSet<>();
+		for (String tick : System.getProperty("roundworld.dumpFrames", "").split(",")) {
+			if (!tick.trim().isEmpty()) {
+				dumpTicks.add(Long.parseLong(tick.trim()));
+			}
+		}
+		File dumpDir = new File(System.getProperty("roundworld.dumpDir", "frames"));
+
+		HeadlessRunner runner = new HeadlessRunner(dumpTicks, dumpDir);
+		runner.run(Integer.getInteger("roundworld.ticks", DEFAULT_TICKS));
+	}
+
+}
@@ -0,0 +1,193 @@
+package roundWorld;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import roundWorld.graphics.FrameSnapshot;
+import roundWorld.graphics.Screen;
+import roundWorld.input.InputHandler;
+import roundWorld.stage.Level;
+
+/**
+ * Measures how the game scales with the number of enemies. For each horde size
+ * the level is filled with that many regular enemies spread around the ring,
+ * run without a window for a fixed number of updates, and the mean update
+ * time, render time, allocation rate and number of enemy pairs tested for
+ * collisions are printed as one row of a table. Allocation is shown as n/a if
+ * the JVM cannot report it
+ *
+ * Settings are read from system properties: roundworld.hordeSizes is a comma
+ * separated list of horde sizes, roundworld.ticks is the number of measured
+ * updates for each size, and roundworld.warmupTicks is the number of updates
+ * run first and not measured. Rendering is skipped if roundworld.hordeRender
+ * is set to false
+ *
+ * @author Andrew Black
+ *
+ */
+public class HordeBenchmark {
+	/**
+	 * The default horde sizes, and numbers of measured and warm up updates
+	 */
+	public static final String DEFAULT_SIZES = "1000,2000,5000,10000,20000";
+	public static final int DEFAULT_TICKS = 300, DEFAULT_WARMUP_TICKS = 60;
+
+	/**
+	 * The game being run, and the input it is created with
+	 */
+	private InputHandler input;
+	private Level level;
+	/**
+	 * The graphics engine and the snapshot each update is recorded into.
+	 * Screen is null if rendering is skipped
+	 */
+	private Screen screen;
+	private FrameSnapshot frame;
+	/**
+	 * Used to read the number of bytes allocated by each thread, or null if
+	 * the JVM cannot report it
+	 */
+	private com.sun.management.ThreadMXBean threads;
+
+	/**
+	 * Constructor sets up the game without a window
+	 *
+	 * @param isRendered
+	 *            Whether each update should also be drawn
+	 */
+	public HordeBenchmark(boolean isRendered) {
+		input = new InputHandler();
+		level = new Level(input);
+		frame = new FrameSnapshot();
+		if (isRendered) {
+			screen = new Screen();
+		}
+
+		ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean) {
+			threads = (com.sun.management.ThreadMXBean) bean;
+			if (threads.isThreadAllocatedMemorySupported()) {
+				threads.setThreadAllocatedMemoryEnabled(true);
+			} else {
+				threads = null;
+			}
+		}
+	}
+
+	/**
+	 * Runs one horde size and prints its row of the table
+	 *
+	 * @param size
+	 *            The number of enemies in the horde
+	 * @param ticks
+	 *            The number of updates to measure
+	 * @param warmupTicks
+	 *            The number of updates to run before measuring
+	 */
+	public void run(int size, int ticks, int warmupTicks) {
+		level.startHorde(size);
+		for (int tick = 0; tick < warmupTicks; tick++) {
+			step(tick);
+		}
+
+		long updateTime = 0;
+		long renderTime = 0;
+		long pairs = 0;
+		long collisions = 0;
+		long allocatedStart = getAllocatedBytes();
+		long start = System.nanoTime();
+
+		for (int tick = 0; tick < ticks; tick++) {
+			long updateStart = System.nanoTime();
+			level.update();
+			long renderStart = System.nanoTime();
+			render(warmupTicks + tick);
+			long now = System.nanoTime();
+
+			updateTime += renderStart - updateStart;
+			renderTime += now - renderStart;
+			pairs += level.getCandidatePairCount();
+			collisions += level.getCollisionCount();
+		}
+
+		double seconds = (System.nanoTime() - start) / 1e9;
+		String allocationRate = "n/a";
+		String allocationPerTick = "n/a";
+		if (threads != null) {
+			long allocated = getAllocatedBytes() - allocatedStart;
+			allocationRate = String.format("%.2f", allocated / 1048576.0 / seconds);
+			allocationPerTick = String.format("%.1f", allocated / 1024.0 / ticks);
+		}
+		System.out.printf("%8d %10.3f %10.3f %10s %12s %12d %12d%n", level.getEnemyCount(),
+				updateTime / 1e6 / ticks, renderTime / 1e6 / ticks,
+				allocationRate, allocationPerTick,
+				pairs / ticks, collisions / ticks);
+	}
+
+	/**
+	 * Runs a single update and draws it
+	 */
+	private void step(long tick) {
+		level.update();
+		render(tick);
+	}
+
+	/**
+	 * Records the frame and draws it, unless rendering is skipped
+	 */
+	private void render(long tick) {
+		if (screen == null) {
+			return;
+		}
+		frame.clear(tick);
+		level.render(frame);
+		screen.draw(frame);
+	}
+
+	/**
+	 * Totals the bytes allocated by every live thread, which includes the
+	 * enemy update pool. A thread started during a measured run, such as a
+	 * new pool worker, is counted from its birth, so everything it allocated
+	 * before the run ended is included
+	 *
+	 * @return The total number of bytes allocated so far by every live
+	 *         thread, or -1 if the JVM cannot report it
+	 */
+	private long getAllocatedBytes() {
+		if (threads == null) {
+			return -1;
+		}
+
+		long total = 0;
+		for (long allocated : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+			if (allocated > 0) {
+				total += allocated;
+			}
+		}
+		return total;
+	}
+
+	/**
+	 * Main method for running the benchmark
+	 *
+	 * @param args
+	 */
+	public static void main(String[] args) {
+		System.setProperty("java.awt.headless", "true");
+
+		int ticks = Integer.getInteger("roundworld.ticks", DEFAULT_TICKS);
+		int warmupTicks = Integer.getInteger("roundworld.warmupTicks", DEFAULT_WARMUP_TICKS);
+		boolean isRendered = !"false".equals(System.getProperty("roundworld.hordeRender"));
+
+		HordeBenchmark benchmark = new HordeBenchmark(isRendered);
+		System.out.printf("%8s %10s %10s %10s %12s %12s %12s%n", "enemies", "update ms", "render ms",
+				"alloc MB/s", "alloc KB/tick", "pairs/tick", "hits/tick");
+		for (String size : System.getProperty("roundworld.hordeSizes", DEFAULT_SIZES).split(",")) {
+			if (!size.trim().isEmpty()) {
+				benchmark.run(Integer.parseInt(size.trim()), ticks, warmupTicks);
+			}
+		}
+		System.exit(0);
+	}
+
+}
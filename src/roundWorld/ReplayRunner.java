@@ -0,0 +1,129 @@
+package roundWorld;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+
+import roundWorld.graphics.FrameSnapshot;
+import roundWorld.graphics.Screen;
+import roundWorld.input.InputHandler;
+import roundWorld.input.InputPlayer;
+import roundWorld.stage.Level;
+
+/**
+ * Replays a recorded game as fast as possible, for soak testing. Updates are
+ * run back to back with no pacing, and frames are only recorded and drawn for
+ * a sample of the updates, or not at all. Since rendering does not change the
+ * game, the replay plays out the same whichever frames are drawn. The number
+ * of updates simulated each second is reported at the end of each replay,
+ * along with the phase the game finished on
+ *
+ * Settings are read from system properties: roundworld.replay is the
+ * recording to replay, unless it is given as the first argument,
+ * roundworld.renderEvery is the number of updates between drawn frames with 0
+ * drawing none, roundworld.ticks is the number of updates to run with 0
+ * running to the last update of the recorded session, and roundworld.replays
+ * is the number of times the recording is replayed
+ *
+ * @author Andrew Black
+ *
+ */
+public class ReplayRunner {
+	/**
+	 * The recording being replayed
+	 */
+	private String path;
+	/**
+	 * The graphics engine and the snapshot sampled frames are recorded into.
+	 * Screen is null if no frames are drawn
+	 */
+	private Screen screen;
+	private FrameSnapshot frame;
+	/**
+	 * The number of updates between drawn frames, or 0 to draw none
+	 */
+	private int renderEvery;
+
+	/**
+	 * Constructor sets up the graphics engine if any frames are drawn
+	 *
+	 * @param inPath
+	 *            The recording to replay
+	 * @param inRenderEvery
+	 *            The number of updates between drawn frames, or 0 to draw
+	 *            none
+	 */
+	public ReplayRunner(String inPath, int inRenderEvery) {
+		path = inPath;
+		renderEvery = inRenderEvery;
+		frame = new FrameSnapshot();
+		if (renderEvery > 0) {
+			screen = new Screen();
+		}
+	}
+
+	/**
+	 * Replays the recording once into a new Level and prints a summary
+	 *
+	 * @param ticks
+	 *            The number of updates to run, or 0 to run to the last
+	 *            update of the recorded session
+	 * @throws IOException
+	 *             If the recording could not be read
+	 */
+	public void run(long ticks) throws IOException {
+		InputPlayer replay = new InputPlayer(new FileInputStream(path));
+		InputHandler input = new InputHandler();
+		Level level = new Level(input, replay.getSeed());
+		int frames = 0;
+		long start = System.nanoTime();
+
+		try {
+			while (ticks > 0 ? level.getTick() < ticks : !replay.isFinished() || level.getTick() < replay.getLastTick()) {
+				replay.feed(level.getTick() + 1, input);
+				level.update();
+
+				if (renderEvery > 0 && level.getTick() % renderEvery == 0) {
+					frame.clear(level.getTick());
+					level.render(frame);
+					screen.draw(frame);
+					frames++;
+				}
+			}
+		} finally {
+			replay.close();
+		}
+
+		double seconds = (System.nanoTime() - start) / 1e9;
+		System.out.printf("%d ticks in %.1f ms, %.0f ticks/s, %d frames drawn, finished on %s%n", level.getTick(),
+				seconds * 1e3, level.getTick() / seconds, frames, level.getPhase());
+	}
+
+	/**
+	 * Main method for replaying a recording
+	 *
+	 * @param args
+	 *            The recording to replay, if it is not set by property
+	 * @throws IOException
+	 *             If the recording could not be read
+	 */
+	public static void main(String[] args) throws IOException {
+		String path = (args.length > 0) ? args[0] : System.getProperty("roundworld.replay");
+		if (path == null) {
+			System.err.println("No recording given: pass a file or set roundworld.replay");
+			return;
+		}
+
+		int renderEvery = Integer.getInteger("roundworld.renderEvery", 0);
+		if (renderEvery > 0) {
+			System.setProperty("java.awt.headless", "true");
+		}
+
+		ReplayRunner runner = new ReplayRunner(path, renderEvery);
+		long ticks = Long.getLong("roundworld.ticks", 0);
+		for (int i = Integer.getInteger("roundworld.replays", 1); i > 0; i--) {
+			runner.run(ticks);
+		}
+		System.exit(0);
+	}
+
+}
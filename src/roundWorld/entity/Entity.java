@@ -1,7 +1,9 @@
 package roundWorld.entity;
 
-import java.awt.Rectangle;
-import roundWorld.stage.Stage;
+import java.nio.ByteBuffer;
+
+import roundWorld.stage.LevelSnapshot;
+import roundWorld.stage.Ring;
 
 /**
  * Super class for the Player and all enemies. Handles movement, hit boxes, and
@@ -33,10 +35,28 @@ public class Entity {
 	};
 
 	/**
-	 * The rotation for determining how sprites should be rendered, and X and Y
-	 * coordinate system for hit box placement
+	 * Every constant of each enumeration in order, for reading them back from
+	 * a snapshot without copying the values array each time
 	 */
-	protected double rotation, x, y;
+	public static final Direction[] DIRECTIONS = Direction.values();
+	public static final Action[] ACTIONS = Action.values();
+	public static final Speed[] SPEEDS = Speed.values();
+
+	/**
+	 * The rotation for determining how sprites should be rendered, and the X
+	 * coordinate for hit box placement, both held as ring angles
+	 */
+	protected int rotation, x;
+	/**
+	 * The Y coordinate for hit box placement
+	 */
+	protected double y;
+	/**
+	 * The rotation and Y coordinate at the end of the previous update, so that
+	 * rendering can interpolate between the last two updates
+	 */
+	protected int previousRotation;
+	protected double previousY;
 	/**
 	 * Value that is incremented when an Entity is in a jumping state,
 	 * eventually overcoming the jump force and pulling it to the ground
@@ -47,6 +67,11 @@ public class Entity {
 	 * their hit boxes
 	 */
 	protected int hitBoxWidth, hitBoxHeight, spriteWidth, spriteHeight, hitBoxOffsetX, hitBoxOffsetY;
+	/**
+	 * The hit box as of the last call to updateHitBox. Kept in the Entity so
+	 * that checking collisions creates no objects
+	 */
+	protected int boxX, boxY, boxWidth, boxHeight;
 	/**
 	 * Variable assigned by each entity to determine movement speed
 	 */
@@ -61,13 +86,23 @@ public class Entity {
 	 * Constructor initializes common variables, and calculates coordinates
 	 */
 	public Entity(Direction direction, Action inAction, int position) {
-		rotation = -Stage.RADIAN_PER_PIXEL * position;
-		x = position;
+		rotation = Ring.fromUnits(-position);
+		x = Ring.fromUnits(position);
 		
 		y = 0;
 		
 		action = inAction;
 		gravityAccel = 0;
+		storePreviousPosition();
+	}
+
+	/**
+	 * Called by Level before each update to remember where the Entity was, so
+	 * that its movement during the update can be interpolated when rendering
+	 */
+	public void storePreviousPosition() {
+		previousRotation = rotation;
+		previousY = y;
 	}
 
 	/**
@@ -78,28 +113,45 @@ public class Entity {
 	 *            The direction to move
 	 */
 	protected void move(Direction direction) {
+		int step = Ring.fromUnits(speed);
 		if (direction == Direction.LEFT) {
-			rotation += Stage.RADIAN_PER_PIXEL * speed;
-			x -= Stage.UNIT_PER_PIXEL * speed;
-			if (x < 0) {
-				x += Stage.CIRCUMFERENCE;
-			}
-
+			rotation += step;
+			x -= step;
 			return;
 		}
 
 		if (direction == Direction.RIGHT) {
-			rotation -= Stage.RADIAN_PER_PIXEL * speed;
-
-			x += Stage.UNIT_PER_PIXEL * speed;
-			if (x > Stage.CIRCUMFERENCE) {
-				x -= Stage.CIRCUMFERENCE;
-			}
-
+			rotation -= step;
+			x += step;
 			return;
 		}
 	}
 
+	/**
+	 * @return The X coordinate in units around the stage
+	 */
+	public double getX() {
+		return Ring.toUnits(x);
+	}
+
+	/**
+	 * @return The rotation after the previous update, in radians
+	 */
+	protected double getPreviousRadians() {
+		return Ring.toRadians(previousRotation);
+	}
+
+	/**
+	 * Converts the rotation to radians continuing on from the previous
+	 * rotation, so that interpolating between the two never crosses the
+	 * wrong way around the ring
+	 * 
+	 * @return The current rotation in radians
+	 */
+	protected double getRadians() {
+		return getPreviousRadians() + Ring.toRadians(rotation - previousRotation);
+	}
+
 	/**
 	 * Increments and applies gravity acceleration to an entity that is jumping.
 	 * Value is reset after it has landed
@@ -117,28 +169,143 @@ public class Entity {
 
 	/**
 	 * Calculates an Entities hit box and positions it correctly based on
-	 * current variables
-	 * 
-	 * @return Rectangle to check for intersection with another entities hit box
+	 * current variables. Called once per update before collisions are checked,
+	 * and the result is kept in the hit box variables
 	 */
-	public Rectangle getHitBox() {
+	public void updateHitBox() {
 		if (action == Action.DYING) {
-			return new Rectangle((int) 0, 0, 0, 0);
+			clearHitBox();
+			return;
 		}
+
+		placeHitBox(hitBoxWidth, hitBoxHeight, hitBoxOffsetX, hitBoxOffsetY);
+	}
+
+	/**
+	 * Sets the hit box to a box of the given size, offset from the top left of
+	 * the sprite. The horizontal offset is mirrored when facing left
+	 * 
+	 * @param width
+	 *            The width of the hit box
+	 * @param height
+	 *            The height of the hit box
+	 * @param offsetX
+	 *            The distance from the side of the sprite that is behind the
+	 *            Entity
+	 * @param offsetY
+	 *            The distance from the top of the sprite
+	 */
+	protected void placeHitBox(int width, int height, int offsetX, int offsetY) {
 		int hitBoxX = 0;
 
 		if (getDirection() == Direction.LEFT) {
-			hitBoxX = (int) (x - (spriteWidth / 2)) + (spriteWidth - hitBoxWidth - hitBoxOffsetX);
+			hitBoxX = (int) (getX() - (spriteWidth / 2)) + (spriteWidth - width - offsetX);
 		}
 
 		if (getDirection() == Direction.RIGHT) {
-			hitBoxX = (int) (x - (spriteWidth / 2)) + hitBoxOffsetX;
+			hitBoxX = (int) (getX() - (spriteWidth / 2)) + offsetX;
 		}
 
-		int hitBoxY = (int) (y - spriteHeight) + hitBoxOffsetY;
+		int hitBoxY = (int) (y - spriteHeight) + offsetY;
+
+		boxX = hitBoxX;
+		boxY = hitBoxY;
+		boxWidth = width;
+		boxHeight = height;
+	}
+
+	/**
+	 * Empties the hit box so that the Entity cannot collide with anything
+	 */
+	protected void clearHitBox() {
+		boxX = 0;
+		boxY = 0;
+		boxWidth = 0;
+		boxHeight = 0;
+	}
+
+	/**
+	 * @return The x coordinate of the left edge of the hit box
+	 */
+	public int getHitBoxX() {
+		return boxX;
+	}
+
+	/**
+	 * @return The y coordinate of the top edge of the hit box
+	 */
+	public int getHitBoxY() {
+		return boxY;
+	}
+
+	/**
+	 * @return The width of the hit box, zero if it is empty
+	 */
+	public int getHitBoxWidth() {
+		return boxWidth;
+	}
+
+	/**
+	 * @return The height of the hit box, zero if it is empty
+	 */
+	public int getHitBoxHeight() {
+		return boxHeight;
+	}
 
-		Rectangle hitBox = new Rectangle((int) hitBoxX, hitBoxY, hitBoxWidth, hitBoxHeight);
-		return hitBox;
+	/**
+	 * Writes the position, movement and hit box of the Entity into a level
+	 * snapshot. Child classes override this to write their own variables
+	 * after these
+	 * 
+	 * @param out
+	 *            The buffer to write to
+	 */
+	public void writeState(ByteBuffer out) {
+		out.putInt(rotation);
+		out.putInt(x);
+		out.putDouble(y);
+		out.putInt(previousRotation);
+		out.putDouble(previousY);
+		out.putDouble(gravityAccel);
+		out.putInt(hitBoxWidth);
+		out.putInt(hitBoxHeight);
+		out.putInt(spriteWidth);
+		out.putInt(spriteHeight);
+		out.putInt(hitBoxOffsetX);
+		out.putInt(hitBoxOffsetY);
+		out.putInt(boxX);
+		out.putInt(boxY);
+		out.putInt(boxWidth);
+		out.putInt(boxHeight);
+		out.putDouble(speed);
+		LevelSnapshot.putEnum(out, action);
+	}
+
+	/**
+	 * Reads back the variables written by writeState
+	 * 
+	 * @param in
+	 *            The buffer to read from
+	 */
+	public void readState(ByteBuffer in) {
+		rotation = in.getInt();
+		x = in.getInt();
+		y = in.getDouble();
+		previousRotation = in.getInt();
+		previousY = in.getDouble();
+		gravityAccel = in.getDouble();
+		hitBoxWidth = in.getInt();
+		hitBoxHeight = in.getInt();
+		spriteWidth = in.getInt();
+		spriteHeight = in.getInt();
+		hitBoxOffsetX = in.getInt();
+		hitBoxOffsetY = in.getInt();
+		boxX = in.getInt();
+		boxY = in.getInt();
+		boxWidth = in.getInt();
+		boxHeight = in.getInt();
+		speed = in.getDouble();
+		action = LevelSnapshot.getEnum(in, ACTIONS);
 	}
 
 	/**
@@ -1,9 +1,15 @@
 package roundWorld.entity.enemy;
 
+import java.nio.ByteBuffer;
+
 import roundWorld.entity.Entity;
-import roundWorld.graphics.Screen;
+import roundWorld.graphics.Animation;
+import roundWorld.graphics.FrameSnapshot;
+import roundWorld.graphics.Sprites;
 import roundWorld.stage.Colourspace;
-import roundWorld.stage.Stage;
+import roundWorld.stage.LevelSnapshot;
+import roundWorld.stage.Ring;
+import roundWorld.stage.SplitRandom;
 
 /**
  * Super class for all Enemy objects. Contains common methods such as update and
@@ -88,6 +94,25 @@ public class Enemy extends Entity {
 	 */
 	protected boolean blockable;
 	
+	/**
+	 * The enemy's own source of random numbers for its AI. Each enemy draws
+	 * only from its own, so the numbers it gets do not depend on the order
+	 * in which enemies are updated
+	 */
+	protected SplitRandom random;
+	
+	/**
+	 * The animation of each action, indexed by the ordinal of the action.
+	 * Child classes point this at a table shared by every enemy of their type
+	 */
+	protected Animation[] animations;
+	
+	/**
+	 * The packed sprite chosen by the last call to advanceAnimation, which
+	 * is the sprite that is rendered
+	 */
+	protected int currentSprite;
+	
 
 	/**
 	 * Constructor for creating enemies during a level.
@@ -106,66 +131,150 @@ public class Enemy extends Entity {
 	 * 			starting value of X.
 	 * @param inColour
 	 * 			The colour, if any, of the enemy.
+	 * @param inRandom
+	 * 			The enemy's own source of random numbers, split from the
+	 * 			Level's.
 	 */
-	public Enemy(Direction direction, Action inAction, int position, double playerPosition, int inColour) {
+	public Enemy(Direction direction, Action inAction, int position, double playerPosition, int inColour, SplitRandom inRandom) {
 		super(direction, inAction, position);
 		name = "Generic";
+		state = new EnemyStates(direction);
+		initialize(direction, inAction, position, playerPosition, inColour, inRandom);
+	}
+
+	/**
+	 * Returns a removed enemy to the state the constructor leaves it in, so
+	 * that it can be placed on the level again instead of creating a new one.
+	 * The constructor sets the enemy up through the same method, so the two
+	 * cannot drift apart. Child classes that are recycled override this to
+	 * restore their own variables as well, in the same way
+	 * 
+	 * @param direction 
+	 * 			Orientation for the enemy to be facing initially.
+	 * @param inAction
+	 * 			Action that the enemy will be taking upon its creation.
+	 * @param position
+	 * 			Location on the stage that Enemy will start at.
+	 * @param playerPosition
+	 * 			Location on the stage of the player.
+	 * @param inColour
+	 * 			The colour, if any, of the enemy.
+	 * @param inRandom
+	 * 			The enemy's own source of random numbers, split from the
+	 * 			Level's.
+	 */
+	public void reset(Direction direction, Action inAction, int position, double playerPosition, int inColour, SplitRandom inRandom) {
+		initialize(direction, inAction, position, playerPosition, inColour, inRandom);
+	}
+
+	/**
+	 * Sets every variable that the enemy starts a level with. Used by both
+	 * the constructor and reset, so that a new enemy and a recycled one
+	 * start out the same
+	 */
+	private void initialize(Direction direction, Action inAction, int position, double playerPosition, int inColour, SplitRandom inRandom) {
+		super.action = inAction;
+		clearHitBox();
 		
-		rotation = -Stage.RADIAN_PER_PIXEL * position;
-		x = (position + playerPosition) * Stage.UNIT_PER_PIXEL;
+		rotation = Ring.fromUnits(-position);
+		x = Ring.fromUnits(position + playerPosition);
 		y = 0;
 		
 		action = inAction;
 		gravityAccel = 0;
+		storePreviousPosition();
 		
-		
-		state = new EnemyStates(direction);
-		turnAroundTime =  300 + (int) (Math.random() * 10);
+		state.reset(direction);
+		random = inRandom;
+		turnAroundTime =  300 + (int) (random.nextDouble() * 10);
+		invincibility_time = 0;
+		currentSprite = 0;
 		
 		colour = inColour;
-		action = inAction;
 		blockable = true;
 		BLUE_ROW_OFFSET = 1;
 		filter = START;
 	}
 
 	/**
-	 * Gets information for Enemy direction and animation counter, and calls the
-	 * child class for an Array of which sprite to render. Screen class is then
-	 * called to perform the draw
+	 * Writes the Enemy's action, states, counters and random number generator
+	 * into a level snapshot, after the variables common to every Entity
 	 * 
-	 * @param screen
-	 *            Screen object so it can be called with the arguments required
-	 *            to draw the Enemy
+	 * @param out
+	 *            The buffer to write to
 	 */
-	public void render(Screen screen) {
+	@Override
+	public void writeState(ByteBuffer out) {
+		super.writeState(out);
+		LevelSnapshot.putEnum(out, action);
+		state.writeState(out);
+		out.putInt(colour);
+		out.putInt(BLUE_ROW_OFFSET);
+		out.putInt(health);
+		out.putInt(invincibility_time);
+		out.putInt(filter);
+		out.putInt(turnAroundTime);
+		LevelSnapshot.putBoolean(out, blockable);
+		random.writeState(out);
+		out.putInt(currentSprite);
+	}
+
+	/**
+	 * Reads back the variables written by writeState
+	 * 
+	 * @param in
+	 *            The buffer to read from
+	 */
+	@Override
+	public void readState(ByteBuffer in) {
+		super.readState(in);
+		action = LevelSnapshot.getEnum(in, ACTIONS);
+		state.readState(in);
+		colour = in.getInt();
+		BLUE_ROW_OFFSET = in.getInt();
+		health = in.getInt();
+		invincibility_time = in.getInt();
+		filter = in.getInt();
+		turnAroundTime = in.getInt();
+		blockable = LevelSnapshot.getBoolean(in);
+		random.readState(in);
+		currentSprite = in.getInt();
+	}
+
+	/**
+	 * Called by Level once per update, after every Entity has been updated.
+	 * Looks up the sprite for the current animation count in the animation
+	 * table, which may finish the animation, and advances the count
+	 */
+	public void advanceAnimation() {
 		int animationCount = state.getAnimationCount();
 		state.incrementAnimationCount();
+		currentSprite = getSprite(animationCount);
+	}
 
+	/**
+	 * Gets information for Enemy direction and records the sprite chosen by
+	 * the last advanceAnimation into the frame snapshot. Rendering does not
+	 * change the Enemy
+	 * 
+	 * @param frame
+	 *            The snapshot to record the arguments required to draw the
+	 *            Enemy into
+	 */
+	public void render(FrameSnapshot frame) {
 		int direction = 0;
 		if (state.getDirectionState() == Direction.LEFT) {
-			direction = Screen.LEFT;
+			direction = Sprites.LEFT;
 		}
 
 		if (state.getDirectionState() == Direction.RIGHT) {
-			direction = Screen.RIGHT;
+			direction = Sprites.RIGHT;
 		}
 
-		int[] columnRowType = getColumnRowType(animationCount);
-		int column = columnRowType[0];
-		int row = columnRowType[1];
-		int type = columnRowType[2];
+		int row = Animation.getRow(currentSprite);
 
-		screen.drawSprite(type, direction, column, (colour == BLUE) ? row + BLUE_ROW_OFFSET : row, rotation, filter);
-	}
-
-	/**
-	 * Called by Level to check where Enemy is in relation to other Entities
-	 * 
-	 * @return The X coordinate as a double
-	 */
-	public double getX() {
-		return x;
+		frame.drawSprite(Animation.getType(currentSprite), direction, Animation.getColumn(currentSprite),
+				(colour == BLUE) ? row + BLUE_ROW_OFFSET : row, getPreviousRadians(), getRadians(), filter);
 	}
 
 	/**
@@ -173,9 +282,9 @@ public class Enemy extends Entity {
 	 * completing these tasks, it calls the enemy-specific aiUpdate.
 	 * 
 	 * @param playerLocation
-	 *            Rotation value of the Player
+	 *            Ring angle the Player has turned since the last update
 	 */
-	public void update(double playerLocation) {
+	public void update(int playerLocation) {
 
 		state.decrementReverseLock();
 		rotation -= playerLocation;
@@ -211,19 +320,11 @@ public class Enemy extends Entity {
 	 * will leave the enemy with a simple walk action.
 	 * @param playerLocation
 	 */
-	public void aiUpdate(double playerLocation) {
+	public void aiUpdate(int playerLocation) {
 		turnAroundTime--;
-		double distance = rotation / Stage.RADIAN_PER_PIXEL;
-
-		while (distance < 0) {
-			distance += 5024;
-		}
-		while (distance > 5024) {
-			distance -= 5024;
-		}
 		
 		if (turnAroundTime <= 0) {
-			turnAroundTime = 300 + (int) (Math.random() * 180);
+			turnAroundTime = 300 + (int) (random.nextDouble() * 180);
 			state.switchDirection();
 		}
 		move(state.getDirectionState());
@@ -232,20 +333,11 @@ public class Enemy extends Entity {
 	/**
 	 * Determines the distance between the enemy and the player,
 	 * starting from the direction the enemy is facing. 
-	 * @param playerLocation The player's current location.
-	 * @return the distance away from the enemy to the player.
+	 * @return the distance away from the enemy to the player, from 0
+	 *         up to but not including Ring.UNITS.
 	 */
 	public double getDistanceFromPlayer() {
-		double distance = rotation / Stage.RADIAN_PER_PIXEL;
-		
-		while (distance < 0) {
-			distance += 5024;
-		}
-		while (distance > 5024) {
-			distance -= 5024;
-		}
-				
-		return distance;
+		return Ring.toUnits(rotation);
 	}
 
 	/**
@@ -281,10 +373,43 @@ public class Enemy extends Entity {
 	}
 
 	/**
-	 * Overridden by child classes to return sprite information
+	 * Finds the sprite for the current action and animation count. When the
+	 * animation finishes, the count is restarted as the animation requires
+	 * and animationFinished is called
+	 * 
+	 * @param animationCount
+	 *            The animation count before this update advanced it
+	 * @return The packed sprite to render
+	 */
+	protected int getSprite(int animationCount) {
+		Animation animation = getAnimation();
+		int sprite = animation.getSprite(animationCount);
+
+		if (animation.isFinished(animationCount)) {
+			if (animation.getRestartCount() != Animation.HOLD) {
+				state.setAnimationCount(animation.getRestartCount());
+			}
+			animationFinished();
+		}
+
+		return sprite;
+	}
+
+	/**
+	 * Returns the animation of the current action. Can be overridden by child
+	 * classes whose animations depend on more than the action
+	 * 
+	 * @return the animation to play
+	 */
+	protected Animation getAnimation() {
+		return animations[action.ordinal()];
+	}
+
+	/**
+	 * Called when an animation that finishes has reached its end. Overridden
+	 * by child classes that change action at the end of an animation
 	 */
-	public int[] getColumnRowType(int animationCount) {
-		return null;
+	protected void animationFinished() {
 	}
 	
 	/**
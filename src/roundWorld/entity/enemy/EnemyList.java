@@ -0,0 +1,138 @@
+package roundWorld.entity.enemy;
+
+import java.util.Arrays;
+
+/**
+ * Holds every enemy on the level in an array whose indexes stay stable while
+ * the level is being updated. Removing an enemy only empties its slot, and the
+ * empty slots are squeezed out later in a single pass by compact, so removals
+ * never shift the enemies after them one at a time. Enemies keep their order,
+ * so they are always updated and drawn in the order they were added
+ *
+ * @author Andrew Black
+ *
+ */
+public class EnemyList {
+	/**
+	 * The enemies, with null in the slots removed since the last compaction
+	 */
+	private Enemy[] enemies;
+	/**
+	 * The number of slots in use, and how many of them have been removed
+	 */
+	private int size, removedCount;
+	/**
+	 * The index each slot moved to during the last compaction, or -1 if it was
+	 * removed. Reused between compactions
+	 */
+	private int[] newIndexes;
+
+	/**
+	 * Constructor creates an empty list
+	 */
+	public EnemyList() {
+		enemies = new Enemy[64];
+		newIndexes = new int[64];
+		size = 0;
+		removedCount = 0;
+	}
+
+	/**
+	 * Adds an enemy to the end of the list
+	 *
+	 * @param enemy
+	 *            The enemy to add
+	 */
+	public void add(Enemy enemy) {
+		if (size == enemies.length) {
+			enemies = Arrays.copyOf(enemies, size * 2);
+			newIndexes = new int[size * 2];
+		}
+		enemies[size++] = enemy;
+	}
+
+	/**
+	 * @param index
+	 *            The slot to read
+	 * @return The enemy in the slot, or null if it has been removed since the
+	 *         last compaction
+	 */
+	public Enemy get(int index) {
+		return enemies[index];
+	}
+
+	/**
+	 * @return The number of slots, including removed slots that have not been
+	 *         compacted yet
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return The number of enemies that have not been removed
+	 */
+	public int count() {
+		return size - removedCount;
+	}
+
+	/**
+	 * @return true if every enemy has been removed
+	 */
+	public boolean isEmpty() {
+		return count() == 0;
+	}
+
+	/**
+	 * Removes the enemy in a slot. The slot is left empty until the next
+	 * compaction, so the indexes of the other enemies do not change
+	 *
+	 * @param index
+	 *            The slot to empty
+	 */
+	public void remove(int index) {
+		if (enemies[index] != null) {
+			enemies[index] = null;
+			removedCount++;
+		}
+	}
+
+	/**
+	 * Squeezes out the removed slots, keeping the order of the remaining
+	 * enemies
+	 *
+	 * @return The index each slot moved to, or -1 for removed slots, valid
+	 *         until the next compaction. Null if nothing was removed, in which
+	 *         case no index changed
+	 */
+	public int[] compact() {
+		if (removedCount == 0) {
+			return null;
+		}
+
+		int kept = 0;
+		for (int i = 0; i < size; i++) {
+			if (enemies[i] == null) {
+				newIndexes[i] = -1;
+				continue;
+			}
+			newIndexes[i] = kept;
+			enemies[kept++] = enemies[i];
+		}
+
+		Arrays.fill(enemies, kept, size, null);
+		size = kept;
+		removedCount = 0;
+		return newIndexes;
+	}
+
+	/**
+	 * Removes every enemy at once
+	 */
+	public void clear() {
+		Arrays.fill(enemies, 0, size, null);
+		size = 0;
+		removedCount = 0;
+	}
+
+}
@@ -0,0 +1,95 @@
+package roundWorld.entity.enemy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import roundWorld.entity.Entity.Action;
+import roundWorld.entity.Entity.Direction;
+import roundWorld.stage.SplitRandom;
+
+/**
+ * Keeps removed enemies of one type so they can be placed on the level again.
+ * Short-lived enemies such as the Witch's spells are spawned and removed
+ * constantly, so reusing them avoids creating a new enemy and its states for
+ * every spell. A recycled enemy is reset to its constructor state before it is
+ * handed out again
+ *
+ * @author Andrew Black
+ *
+ * @param <T>
+ *            The type of enemy held
+ */
+public abstract class EnemyPool<T extends Enemy> {
+	/**
+	 * The default number of removed enemies kept for reuse
+	 */
+	public static final int DEFAULT_CAPACITY = 32;
+
+	/**
+	 * Removed enemies waiting to be reused
+	 */
+	private List<T> freeEnemies;
+	/**
+	 * The most removed enemies that are kept. Any more are left for the
+	 * garbage collector
+	 */
+	private int capacity;
+
+	/**
+	 * Constructor creates an empty pool
+	 *
+	 * @param inCapacity
+	 *            The most removed enemies to keep
+	 */
+	public EnemyPool(int inCapacity) {
+		capacity = inCapacity;
+		freeEnemies = new ArrayList<>(inCapacity);
+	}
+
+	/**
+	 * Returns an enemy in the state a new one would be in, reusing a removed
+	 * enemy if there is one
+	 *
+	 * @param direction
+	 *            Orientation for the enemy to be facing initially.
+	 * @param inAction
+	 *            Action that the enemy will be taking upon its creation.
+	 * @param position
+	 *            Location on the stage that Enemy will start at.
+	 * @param playerPosition
+	 *            Location on the stage of the player.
+	 * @param inColour
+	 *            The colour, if any, of the enemy.
+	 * @param inRandom
+	 *            The enemy's own source of random numbers.
+	 * @return An enemy ready to be added to the level
+	 */
+	public T obtain(Direction direction, Action inAction, int position, double playerPosition, int inColour, SplitRandom inRandom) {
+		if (freeEnemies.isEmpty()) {
+			return create(direction, inAction, position, playerPosition, inColour, inRandom);
+		}
+
+		T enemy = freeEnemies.remove(freeEnemies.size() - 1);
+		enemy.reset(direction, inAction, position, playerPosition, inColour, inRandom);
+		return enemy;
+	}
+
+	/**
+	 * Takes back an enemy that has been removed from the level. It must not be
+	 * used again until it is handed out by obtain
+	 *
+	 * @param enemy
+	 *            The removed enemy
+	 */
+	public void recycle(T enemy) {
+		if (freeEnemies.size() < capacity) {
+			freeEnemies.add(enemy);
+		}
+	}
+
+	/**
+	 * Creates a new enemy when there is none to reuse
+	 */
+	protected abstract T create(Direction direction, Action inAction, int position, double playerPosition, int inColour, SplitRandom inRandom);
+
+}
@@ -1,6 +1,10 @@
 package roundWorld.entity.enemy;
 
+import java.nio.ByteBuffer;
+
+import roundWorld.entity.Entity;
 import roundWorld.entity.Entity.Direction;
+import roundWorld.stage.LevelSnapshot;
 
 /**
  * Manages the various states that an Enemy can be in. Tracks counters and
@@ -27,6 +31,17 @@ public class EnemyStates {
 	 *            Passed a direction value to set the initial direction to face
 	 */
 	public EnemyStates(Direction inDirectionState) {
+		reset(inDirectionState);
+	}
+
+	/**
+	 * Returns every variable to its starting value, so a recycled Enemy can
+	 * reuse its states
+	 * 
+	 * @param inDirectionState
+	 *            Passed a direction value to set the initial direction to face
+	 */
+	public void reset(Direction inDirectionState) {
 		directionState = inDirectionState;
 		animationCount = 0;
 		reverseLock = 0;
@@ -62,6 +77,16 @@ public class EnemyStates {
 		animationCount = 0;
 	}
 
+	/**
+	 * Sets the animation count, for animations that restart part way through
+	 * 
+	 * @param inAnimationCount
+	 *            The new animation count
+	 */
+	public void setAnimationCount(int inAnimationCount) {
+		animationCount = inAnimationCount;
+	}
+
 	/**
 	 * Unconditionally changes the current direction to Left
 	 */
@@ -119,6 +144,30 @@ public class EnemyStates {
 		}
 		return true;
 	}
+
+	/**
+	 * Writes the direction and counters into a level snapshot
+	 * 
+	 * @param out
+	 *            The buffer to write to
+	 */
+	public void writeState(ByteBuffer out) {
+		LevelSnapshot.putEnum(out, directionState);
+		out.putInt(animationCount);
+		out.putInt(reverseLock);
+	}
+
+	/**
+	 * Reads back the variables written by writeState
+	 * 
+	 * @param in
+	 *            The buffer to read from
+	 */
+	public void readState(ByteBuffer in) {
+		directionState = LevelSnapshot.getEnum(in, Entity.DIRECTIONS);
+		animationCount = in.getInt();
+		reverseLock = in.getInt();
+	}
 	
 
 
@@ -1,7 +1,8 @@
 package roundWorld.entity.enemy;
 
-
-import roundWorld.graphics.Screen;
+import roundWorld.graphics.Animation;
+import roundWorld.graphics.Sprites;
+import roundWorld.stage.SplitRandom;
 
 /**
  * The Fireball is summoned by the Witch. It careens across the screen in the
@@ -14,30 +15,55 @@ import roundWorld.graphics.Screen;
 public class Fireball extends Enemy {
 	
 	public static final int SPRITE_WIDTH = 50, SPRITE_HEIGHT = 100, BASE_SPEED = 10;
+	
+	/**
+	 * The animation of each action. The fireball bursts into flame, then
+	 * flickers between its last two sprites for as long as it lives
+	 */
+	private static final Animation[] ANIMATIONS = Animation.table(Action.values().length,
+			new Animation(6, new int[] { sprite(1), sprite(2), sprite(3), sprite(4), sprite(5) }, 30, sprite(4), 18));
 
 	
 	/**
 	 * Constructor initialized declared variables from super class with
 	 * constants declared at this level. Hit box properties are also set
 	 */
-	public Fireball(Direction direction, Action inAction, int position, double playerPosition, int inColour) {
-		super(direction, inAction, position, playerPosition, inColour);
+	public Fireball(Direction direction, Action inAction, int position, double playerPosition, int inColour, SplitRandom inRandom) {
+		super(direction, inAction, position, playerPosition, inColour, inRandom);
+		animations = ANIMATIONS;
 		name = "Fireball";
 		
 		spriteWidth = SPRITE_WIDTH;
 		spriteHeight = SPRITE_HEIGHT;
-		speed = BASE_SPEED;
-		health = 300;
 
 		hitBoxWidth = 25;
 		hitBoxHeight = 19;
 		hitBoxOffsetX = 21;
 		hitBoxOffsetY = 13;
 		
+		initializeSpell();
+	}
+	
+	/**
+	 * Restores the variables set by the constructor, so that a Fireball taken
+	 * from a pool starts out the same as a new one
+	 */
+	@Override
+	public void reset(Direction direction, Action inAction, int position, double playerPosition, int inColour, SplitRandom inRandom) {
+		super.reset(direction, inAction, position, playerPosition, inColour, inRandom);
+		initializeSpell();
+	}
+
+	/**
+	 * Sets the variables that differ from other enemies. Used by both the
+	 * constructor and reset, so that a new Fireball and a recycled one start
+	 * out the same
+	 */
+	private void initializeSpell() {
+		speed = BASE_SPEED;
+		health = 300;
 		blockable = false;
-		
 		filter = NOFLASH;
-		
 	}
 	
 	/**
@@ -45,7 +71,7 @@ public class Fireball extends Enemy {
 	 * like a timer. Once it reaches zero, it destroys itself.
 	 * @param playerLocation Unused.
 	 */
-	public void aiUpdate(double playerLocation) {
+	public void aiUpdate(int playerLocation) {
 		state.lockReverse();
 		switch (action) {
 		case WALK:
@@ -62,34 +88,11 @@ public class Fireball extends Enemy {
 	}
 	
 	/**
-	 * Overridden by child classes to return sprite information
+	 * Packs one of the Fireball's sprites
+	 * 
+	 * @return the packed sprite in the given column of the first row
 	 */
-	public int[] getColumnRowType(int animationCount) {
-		int framesPerSprite = 6;
-		int columnRowType[] = new int[3];
-
-		columnRowType[2] = Screen.FIREBALL;
-		columnRowType[1] = 1;
-		
-		if (animationCount < framesPerSprite) {
-			columnRowType[0] = 1;
-		} else if (animationCount < framesPerSprite * 2) {
-			columnRowType[0] = 2;
-		} else if (animationCount < framesPerSprite * 3) {
-			columnRowType[0] = 3;
-		} else if (animationCount < framesPerSprite * 4) {
-			columnRowType[0] = 4;
-		} else if (animationCount < framesPerSprite * 5) {
-			columnRowType[0] = 5;
-		} else {
-			state.resetAnimationCount();
-			for (int i = 0; i < framesPerSprite * 3; i++) {
-				state.incrementAnimationCount();
-			}
-			columnRowType[0] = 4;
-		}
-		
-		return columnRowType;
-
+	private static int sprite(int column) {
+		return Animation.sprite(Sprites.FIREBALL, column, 1);
 	}
 }
@@ -1,8 +1,9 @@
 package roundWorld.entity.enemy;
 
-import java.awt.Rectangle;
-import roundWorld.graphics.Screen;
-import roundWorld.stage.Stage;
+import roundWorld.graphics.Animation;
+import roundWorld.graphics.Sprites;
+import roundWorld.stage.Ring;
+import roundWorld.stage.SplitRandom;
 
 /**
  * A large enemy that lumbers slowly forward, but is unable to turn. When it
@@ -17,13 +18,30 @@ public class Golem extends Enemy {
 
 	public static final int SPRITE_WIDTH = 124, SPRITE_HEIGHT = 168, BASE_SPEED = 1;
 	
+	/**
+	 * The animation of each action. A step and an attack each finish by
+	 * returning the Golem to his standing sprite.
+	 */
+	private static final Animation[] ANIMATIONS = Animation.table(Action.values().length, new Animation(sprite(1, 1)));
+	static {
+		ANIMATIONS[Action.WALK.ordinal()] = new Animation(10, new int[] {
+				sprite(2, 1), sprite(3, 1), sprite(4, 1),
+				sprite(1, 2), sprite(2, 2), sprite(3, 2), sprite(4, 2) }, 70, sprite(1, 1), 0);
+		ANIMATIONS[Action.ATTACK.ordinal()] = new Animation(6, Animation.repeat(new int[] {
+				sprite(1, 3), sprite(2, 3), sprite(3, 3), sprite(4, 3),
+				sprite(1, 4), sprite(2, 4), sprite(3, 4), sprite(4, 4),
+				sprite(1, 5), sprite(2, 5), sprite(3, 5) },
+				new int[] { 1, 1, 1, 1, 1, 1, 1, 10, 1, 1, 1 }), 120, sprite(4, 5), 0);
+	}
+	
 	/**
 	 * Constructor initialized declared variables from super class with
 	 * constants declared at this level. Hit box properties are also set
 	 */
-	public Golem(Direction direction, Action inAction, int position, double playerPosition, int inColour) {
-		super(direction, inAction, position, playerPosition, inColour);
+	public Golem(Direction direction, Action inAction, int position, double playerPosition, int inColour, SplitRandom inRandom) {
+		super(direction, inAction, position, playerPosition, inColour, inRandom);
 		BLUE_ROW_OFFSET = 5;
+		animations = ANIMATIONS;
 		
 		name = "Golem";
 		
@@ -46,19 +64,13 @@ public class Golem extends Enemy {
 	 * @param playerLocation The location of the player to determine current distance.
 	 */
 	@Override
-	public void aiUpdate(double playerLocation) {
-		double distance = rotation / Stage.RADIAN_PER_PIXEL;
-		while (distance < 0) {
-			distance += 5024;
-		}
-		while (distance > 5024) {
-			distance -= 5024;
-		}
+	public void aiUpdate(int playerLocation) {
+		double distance = getDistanceFromPlayer();
 		state.lockReverse();
 		switch (action) {
 		case IDLE:
 
-			if ((distance > 4924 && state.getDirectionState() == Direction.LEFT) ||
+			if ((distance > Ring.UNITS - 100 && state.getDirectionState() == Direction.LEFT) ||
 					(distance < 100 && state.getDirectionState() == Direction.RIGHT)) {
 					state.resetAnimationCount();
 					action = Action.ATTACK;
@@ -81,178 +93,74 @@ public class Golem extends Enemy {
 	
 	
 	/**
-	 * Uses information from the state class to animate between sprites and load
-	 * necessary values into an array which will be sent back to the parents
-	 * render method
+	 * Finds the sprite to render. The first blow of the Golem's attack
+	 * cannot be blocked, and blocking is allowed again once his fists
+	 * are on the ground.
 	 * 
-	 * @return an Array containing information needed to load the correct sprite
+	 * @return the packed sprite to render
 	 */
 	@Override
-	public int[] getColumnRowType(int animationCount) {
-		int columnRowType[] = new int[3];
-
-		columnRowType[2] = Screen.GOLEM;
-		int framesPerSprite;
-		
-		switch (action) {
-		case IDLE:
-			columnRowType[1] = 1;
-			columnRowType[0] = 1;
-			break;
-		case WALK:
-			framesPerSprite = 10;
-			if (animationCount < framesPerSprite) {
-				columnRowType[1] = 1;
-				columnRowType[0] = 2;
-			} else if (animationCount < framesPerSprite * 2) {
-				columnRowType[1] = 1;
-				columnRowType[0] = 3;
-			} else if (animationCount < framesPerSprite * 3) {
-				columnRowType[1] = 1;
-				columnRowType[0] = 4;
-			} else if (animationCount < framesPerSprite * 4) {
-				columnRowType[1] = 2;
-				columnRowType[0] = 1;
-			} else if (animationCount < framesPerSprite * 5) {
-				columnRowType[1] = 2;
-				columnRowType[0] = 2;
-			} else if (animationCount < framesPerSprite * 6) {
-				columnRowType[1] = 2;
-				columnRowType[0] = 3;
-			} else if (animationCount < framesPerSprite * 7) {
-				columnRowType[1] = 2;
-				columnRowType[0] = 4;
-			} else {
-				columnRowType[1] = 1;
-				columnRowType[0] = 1;
-				state.resetAnimationCount();
-				action = Action.IDLE;
-			}
-			break;
-		case ATTACK:
-			framesPerSprite = 6;
-
-			if (animationCount < framesPerSprite) {
-				columnRowType[0] = 1;
-				columnRowType[1] = 3;
-			} else if (animationCount < framesPerSprite * 2) {
-				columnRowType[0] = 2;
-				columnRowType[1] = 3;
-			} else if (animationCount < framesPerSprite * 3) {
-				columnRowType[0] = 3;
-				columnRowType[1] = 3;
-			} else if (animationCount < framesPerSprite * 4) {
-				columnRowType[0] = 4;
-				columnRowType[1] = 3;
-			} else if (animationCount < framesPerSprite * 5) {
-				columnRowType[0] = 1;
-				columnRowType[1] = 4;
-			} else if (animationCount < framesPerSprite * 6) {
+	protected int getSprite(int animationCount) {
+		if (action == Action.ATTACK) {
+			if (animationCount >= 6 * 5 && animationCount < 6 * 6) {
 				//Hitbox 1
 				blockable = false;
-				columnRowType[0] = 2;
-				columnRowType[1] = 4;
-			} else if (animationCount < framesPerSprite * 7) {
-				//Hitbox 2
-				columnRowType[0] = 3;
-				columnRowType[1] = 4;
-			} else if (animationCount < framesPerSprite * 17) {
+			} else if (animationCount >= 6 * 7 && animationCount < 6 * 17) {
 				//Hitbox 2
 				blockable = true;
-				columnRowType[0] = 4;
-				columnRowType[1] = 4;
-			} else if (animationCount < framesPerSprite * 18) {
-				//Hitbox 2
-				columnRowType[0] = 1;
-				columnRowType[1] = 5;
-			} else if (animationCount < framesPerSprite * 19) {
-				//Hitbox 1
-				columnRowType[0] = 2;
-				columnRowType[1] = 5;
-			} else if (animationCount < framesPerSprite * 20) {
-				columnRowType[0] = 3;
-				columnRowType[1] = 5;
-			} else {
-				columnRowType[0] = 4;
-				columnRowType[1] = 5;
-				state.resetAnimationCount();
-				action = Action.IDLE;
 			}
-			
-			break;
-
-		default:
-			columnRowType[0] = 1;
-			columnRowType[1] = 1;
 		}
 		
-
-		return columnRowType;
+		return super.getSprite(animationCount);
 	}
 	
+	/**
+	 * The Golem stands still after each step and each attack.
+	 */
+	@Override
+	protected void animationFinished() {
+		action = Action.IDLE;
+	}
 	
 	/**
-	 * Calculates an Entities hit box and positions it correctly based on
-	 * current variables
+	 * Packs one of the Golem's sprites
 	 * 
-	 * @return Rectangle to check for intersection with another entities hit box
+	 * @return the packed sprite in the given column and row
+	 */
+	private static int sprite(int column, int row) {
+		return Animation.sprite(Sprites.GOLEM, column, row);
+	}
+	
+	
+	/**
+	 * Calculates an Entities hit box and positions it correctly based on
+	 * current variables. The hit box follows the Golem's fists while he
+	 * attacks
 	 */
 	@Override
-	public Rectangle getHitBox() {
+	public void updateHitBox() {
 		if (action == Action.DYING) {
-			return new Rectangle((int) 0, 0, 0, 0);
+			clearHitBox();
+			return;
 		}
-		int hitBoxX = 0;
-		int hitBoxY = 0;
-		Rectangle hitBox = null;
 		switch (action) {
 		case ATTACK:
 			//Attack hitbox 1
 			if ((state.getAnimationCount() >= 6 * 5 && state.getAnimationCount() < 6 * 6) ||
 				(state.getAnimationCount() >= 6 * 18 && state.getAnimationCount() < 6 * 19)) {
-				if (getDirection() == Direction.LEFT) {
-					hitBoxX = (int) (x - (spriteWidth / 2)) + (spriteWidth - 115 - 5);
-				}
-			
-				if (getDirection() == Direction.RIGHT) {
-					hitBoxX = (int) (x - (spriteWidth / 2)) + 5;
-				}
-			
-				hitBoxY = (int) (y - spriteHeight) + 48;
-				hitBox = new Rectangle((int) hitBoxX, hitBoxY, 115, 120);
-				return hitBox;
+				placeHitBox(115, 120, 5, 48);
+				return;
 			}
 			
 			//Attack hitbox2
 			if (state.getAnimationCount() >= 6 * 6 && state.getAnimationCount() < 6 * 18) {
-				if (getDirection() == Direction.LEFT) {
-					hitBoxX = (int) (x - (spriteWidth / 2)) + (spriteWidth - 104 - 15);
-				}
-			
-				if (getDirection() == Direction.RIGHT) {
-					hitBoxX = (int) (x - (spriteWidth / 2)) + 15;
-				}
-			
-				hitBoxY = (int) (y - spriteHeight) + 111;
-				hitBox = new Rectangle((int) hitBoxX, hitBoxY, 104, 57);
-				return hitBox;
+				placeHitBox(104, 57, 15, 111);
+				return;
 			}
 		default:
-			if (getDirection() == Direction.LEFT) {
-				hitBoxX = (int) (x - (spriteWidth / 2)) + (spriteWidth - hitBoxWidth - hitBoxOffsetX);
-			}
-
-			if (getDirection() == Direction.RIGHT) {
-				hitBoxX = (int) (x - (spriteWidth / 2)) + hitBoxOffsetX;
-			}
-
-			hitBoxY = (int) (y - spriteHeight) + hitBoxOffsetY;
-			hitBox = new Rectangle((int) hitBoxX, hitBoxY, hitBoxWidth, hitBoxHeight);
+			placeHitBox(hitBoxWidth, hitBoxHeight, hitBoxOffsetX, hitBoxOffsetY);
 			break;
 		}
-		
-
-		return hitBox;
 	}
 	
 	/**
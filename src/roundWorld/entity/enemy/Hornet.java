@@ -1,6 +1,8 @@
 package roundWorld.entity.enemy;
 
-import roundWorld.graphics.Screen;
+import roundWorld.graphics.Animation;
+import roundWorld.graphics.Sprites;
+import roundWorld.stage.SplitRandom;
 
 /**
  * A simple enemy that flies above the ground, making him unable to be jumped
@@ -16,12 +18,20 @@ public class Hornet extends Enemy {
 	 */
 	public static final int SPRITE_WIDTH = 70, SPRITE_HEIGHT = 100, BASE_SPEED = 1;
 
+	/**
+	 * The animation of each action. Hornet only ever flies, beating his wings
+	 * every update
+	 */
+	private static final Animation[] ANIMATIONS = Animation.table(Action.values().length,
+			new Animation(1, new int[] { sprite(1), sprite(2), sprite(3), sprite(2) }, 4, sprite(1), 0));
+
 	/**
 	 * Constructor initialized declared variables from super class with
 	 * constants declared at this level. Hit box properties are also set
 	 */
-	public Hornet(Direction direction, Action inAction, int position, double playerPosition, int inColour) {
-		super(direction, inAction, position, playerPosition, inColour);
+	public Hornet(Direction direction, Action inAction, int position, double playerPosition, int inColour, SplitRandom inRandom) {
+		super(direction, inAction, position, playerPosition, inColour, inRandom);
+		animations = ANIMATIONS;
 		
 		name = "Hornet";
 		
@@ -38,33 +48,12 @@ public class Hornet extends Enemy {
 	}
 
 	/**
-	 * Uses information from the state class to animate between sprites and load
-	 * necessary values into an array which will be sent back to the parents
-	 * render method
+	 * Packs one of Hornet's sprites
 	 * 
-	 * @return an Array containing information needed to load the correct sprite
+	 * @return the packed sprite in the given column of the first row
 	 */
-	@Override
-	public int[] getColumnRowType(int animationCount) {
-		int columnRowType[] = new int[3];
-		columnRowType[1] = 1;
-		columnRowType[2] = Screen.HORNET;
-
-		int framesPerSprite = 1;
-		if (animationCount < framesPerSprite) {
-			columnRowType[0] = 1;
-		} else if (animationCount < framesPerSprite * 2) {
-			columnRowType[0] = 2;
-		} else if (animationCount < framesPerSprite * 3) {
-			columnRowType[0] = 3;
-		} else if (animationCount < framesPerSprite * 4) {
-			columnRowType[0] = 2;
-		} else {
-			columnRowType[0] = 1;
-			state.resetAnimationCount();
-		}
-
-		return columnRowType;
+	private static int sprite(int column) {
+		return Animation.sprite(Sprites.HORNET, column, 1);
 	}
 
 }
\ No newline at end of file
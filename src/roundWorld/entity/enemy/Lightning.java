@@ -1,9 +1,9 @@
 package roundWorld.entity.enemy;
 
 
-import java.awt.Rectangle;
-
-import roundWorld.graphics.Screen;
+import roundWorld.graphics.Animation;
+import roundWorld.graphics.Sprites;
+import roundWorld.stage.SplitRandom;
 
 /**
  * The Lighting cloud is summoned by the Witch. It forms at the player's location
@@ -17,38 +17,70 @@ import roundWorld.graphics.Screen;
 public class Lightning extends Enemy {
 	
 	public static final int SPRITE_WIDTH = 100, SPRITE_HEIGHT = 200, BASE_SPEED = 1;
+	
+	/**
+	 * The animation of each action. While idle the cloud gathers and holds
+	 * its last sprite, and the strike holds its last sprite until it fades.
+	 */
+	private static final Animation[] ANIMATIONS = Animation.table(Action.values().length, new Animation(sprite(4, 1)));
+	static {
+		ANIMATIONS[Action.IDLE.ordinal()] = new Animation(3, new int[] {
+				sprite(1, 1), sprite(2, 1), sprite(3, 1), sprite(4, 1),
+				sprite(1, 2), sprite(2, 2), sprite(3, 2), sprite(4, 2),
+				sprite(1, 3), sprite(2, 3), sprite(3, 3), sprite(4, 3) }, 11);
+		ANIMATIONS[Action.ATTACK.ordinal()] = new Animation(3, new int[] {
+				sprite(1, 4), sprite(2, 4), sprite(3, 4), sprite(4, 4) }, 3);
+	}
 
 	
 	/**
 	 * Constructor initialized declared variables from super class with
 	 * constants declared at this level. Hit box properties are also set
 	 */
-	public Lightning(Direction direction, Action inAction, int position, double playerPosition, int inColour) {
-		super(direction, inAction, position, playerPosition, inColour);
+	public Lightning(Direction direction, Action inAction, int position, double playerPosition, int inColour, SplitRandom inRandom) {
+		super(direction, inAction, position, playerPosition, inColour, inRandom);
+		animations = ANIMATIONS;
 		name = "Lightning";
 		
 		spriteWidth = SPRITE_WIDTH;
 		spriteHeight = SPRITE_HEIGHT;
-		speed = BASE_SPEED;
-		health = 300;
 
 		hitBoxWidth = 20;
 		hitBoxHeight = 200;
 		hitBoxOffsetX = 40;
 		hitBoxOffsetY = 0;
 		
+		initializeSpell();
+	}
+	
+	/**
+	 * Restores the variables set by the constructor, so that a Lightning taken
+	 * from a pool starts out the same as a new one
+	 */
+	@Override
+	public void reset(Direction direction, Action inAction, int position, double playerPosition, int inColour, SplitRandom inRandom) {
+		super.reset(direction, inAction, position, playerPosition, inColour, inRandom);
+		initializeSpell();
+	}
+
+	/**
+	 * Sets the variables that differ from other enemies. Used by both the
+	 * constructor and reset, so that a new Lightning and a recycled one start
+	 * out the same
+	 */
+	private void initializeSpell() {
+		speed = BASE_SPEED;
+		health = 300;
 		blockable = false;
-		
 		filter = NOFLASH;
-		
 	}
 	
 	/**
-	 * The fireball only careens forward, its health decrementing every frame
-	 * like a timer. Once it reaches zero, it destroys itself.
+	 * The lightning bolt stays where it was cast. It gathers while idle, then
+	 * strikes, and once the strike is over it flashes and destroys itself.
 	 * @param playerLocation Unused.
 	 */
-	public void aiUpdate(double playerLocation) {
+	public void aiUpdate(int playerLocation) {
 		state.lockReverse();
 		switch (action) {
 		case IDLE:
@@ -71,109 +103,34 @@ public class Lightning extends Enemy {
 	}
 	
 	/**
-	 * Overridden by child classes to return sprite information
+	 * The Lightning's sprites are chosen by the animation count after
+	 * advanceAnimation has incremented it, one update ahead of other enemies.
 	 */
-	public int[] getColumnRowType(int animationCount) {
-		int framesPerSprite = 3;
-		int columnRowType[] = new int[3];
-
-		columnRowType[2] = Screen.LIGHTNING;
-		
-		
-		switch (action) {
-		case IDLE:
-			if (state.getAnimationCount() < framesPerSprite) {
-				columnRowType[1] = 1;
-				columnRowType[0] = 1;
-			} else if (state.getAnimationCount() < framesPerSprite * 2) {
-				columnRowType[1] = 1;
-				columnRowType[0] = 2;
-			} else if (state.getAnimationCount() < framesPerSprite * 3) {
-				columnRowType[1] = 1;
-				columnRowType[0] = 3;
-			} else if (state.getAnimationCount() < framesPerSprite * 4) {
-				columnRowType[1] = 1;
-				columnRowType[0] = 4;
-			} else if (state.getAnimationCount() < framesPerSprite * 5) {
-				columnRowType[1] = 2;
-				columnRowType[0] = 1;
-			} else if (state.getAnimationCount() < framesPerSprite * 6) {
-				columnRowType[1] = 2;
-				columnRowType[0] = 2;
-			} else if (state.getAnimationCount() < framesPerSprite * 7) {
-				columnRowType[1] = 2;
-				columnRowType[0] = 3;
-			} else if (state.getAnimationCount() < framesPerSprite * 8) {
-				columnRowType[1] = 2;
-				columnRowType[0] = 4;
-			} else if (state.getAnimationCount() < framesPerSprite * 9) {
-				columnRowType[1] = 3;
-				columnRowType[0] = 1;
-			} else if (state.getAnimationCount() < framesPerSprite * 10) {
-				columnRowType[1] = 3;
-				columnRowType[0] = 2;
-			} else if (state.getAnimationCount() < framesPerSprite * 11) {
-				columnRowType[1] = 3;
-				columnRowType[0] = 3;
-			} else {
-				columnRowType[1] = 3;
-				columnRowType[0] = 4;
-			}
-			break;
-		case ATTACK:
-			if (state.getAnimationCount() < framesPerSprite) {
-				columnRowType[1] = 4;
-				columnRowType[0] = 1;
-			} else if (state.getAnimationCount() < framesPerSprite * 2) {
-				columnRowType[1] = 4;
-				columnRowType[0] = 2;
-			} else if (state.getAnimationCount() < framesPerSprite * 3) {
-				columnRowType[1] = 4;
-				columnRowType[0] = 3;
-			} else if (state.getAnimationCount() < framesPerSprite * 4) {
-				columnRowType[1] = 4;
-				columnRowType[0] = 4;
-			} else {
-				columnRowType[1] = 4;
-				columnRowType[0] = 4;
-			}
-			break;
-		default:
-			columnRowType[1] = 1;
-			columnRowType[0] = 4;
-			break;
-		}
-		
-		return columnRowType;
-
+	@Override
+	protected int getSprite(int animationCount) {
+		return super.getSprite(state.getAnimationCount());
 	}
 	
 	/**
-	 * Calculates an Entities hit box and positions it correctly based on
-	 * current variables
+	 * Packs one of the Lightning's sprites
 	 * 
-	 * @return Rectangle to check for intersection with another entities hit box
+	 * @return the packed sprite in the given column and row
+	 */
+	private static int sprite(int column, int row) {
+		return Animation.sprite(Sprites.LIGHTNING, column, row);
+	}
+	
+	/**
+	 * Calculates an Entities hit box and positions it correctly based on
+	 * current variables. Lightning can only hit while it is striking
 	 */
 	@Override
-	public Rectangle getHitBox() {
+	public void updateHitBox() {
 		if (action != Action.ATTACK) {
-			return new Rectangle((int) 0, 0, 0, 0);
+			clearHitBox();
+			return;
 		}
 		
-		int hitBoxX = 0;
-		int hitBoxY = 0;
-		Rectangle hitBox = null;
-		
-		if (getDirection() == Direction.LEFT) {
-			hitBoxX = (int) (x - (spriteWidth / 2)) + (spriteWidth - hitBoxWidth - hitBoxOffsetX);
-		}
-		if (getDirection() == Direction.RIGHT) {
-			hitBoxX = (int) (x - (spriteWidth / 2)) + hitBoxOffsetX;
-		}
-
-		hitBoxY = (int) (y - spriteHeight) + hitBoxOffsetY;
-		hitBox = new Rectangle((int) hitBoxX, hitBoxY, hitBoxWidth, hitBoxHeight);
-
-		return hitBox;
+		placeHitBox(hitBoxWidth, hitBoxHeight, hitBoxOffsetX, hitBoxOffsetY);
 	}
 }
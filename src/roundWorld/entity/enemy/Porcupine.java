@@ -1,6 +1,8 @@
 package roundWorld.entity.enemy;
 
-import roundWorld.graphics.Screen;
+import roundWorld.graphics.Animation;
+import roundWorld.graphics.Sprites;
+import roundWorld.stage.SplitRandom;
 
 /**
  * The most basic enemy. Porcupine simply walks around and needs to be jumped
@@ -16,14 +18,22 @@ public class Porcupine extends Enemy {
 	 */
 	public static final int SPRITE_WIDTH = 60, SPRITE_HEIGHT = 50, BASE_SPEED = 1;
 
+	/**
+	 * The animation of each action. Porcupine only ever walks, stepping
+	 * through his sprites and back again
+	 */
+	private static final Animation[] ANIMATIONS = Animation.table(Action.values().length,
+			new Animation(10, new int[] { sprite(1), sprite(2), sprite(3), sprite(2) }, 40, sprite(1), 0));
+
 	
 	/**
 	 * Constructor initialized declared variables from super class with
 	 * constants declared at this level. Hit box properties are also set
 	 */
-	public Porcupine(Direction direction, Action inAction, int position, double playerPosition, int inColour) {
-		super(direction, inAction, position, playerPosition, inColour);
+	public Porcupine(Direction direction, Action inAction, int position, double playerPosition, int inColour, SplitRandom inRandom) {
+		super(direction, inAction, position, playerPosition, inColour, inRandom);
 		BLUE_ROW_OFFSET = 1;
+		animations = ANIMATIONS;
 		
 		name = "Porcupine";
 		
@@ -39,33 +49,12 @@ public class Porcupine extends Enemy {
 	}
 
 	/**
-	 * Uses information from the state class to animate between sprites and load
-	 * necessary values into an array which will be sent back to the parents
-	 * render method
+	 * Packs one of Porcupine's sprites
 	 * 
-	 * @return an Array containing information needed to load the correct sprite
+	 * @return the packed sprite in the given column of the first row
 	 */
-	@Override
-	public int[] getColumnRowType(int animationCount) {
-		int columnRowType[] = new int[3];
-		columnRowType[1] = 1;
-		columnRowType[2] = Screen.PORCUPINE;
-
-		int framesPerSprite = 10;
-		if (animationCount < framesPerSprite) {
-			columnRowType[0] = 1;
-		} else if (animationCount < framesPerSprite * 2) {
-			columnRowType[0] = 2;
-		} else if (animationCount < framesPerSprite * 3) {
-			columnRowType[0] = 3;
-		} else if (animationCount < framesPerSprite * 4) {
-			columnRowType[0] = 2;
-		} else {
-			columnRowType[0] = 1;
-			state.resetAnimationCount();
-		}
-
-		return columnRowType;
+	private static int sprite(int column) {
+		return Animation.sprite(Sprites.PORCUPINE, column, 1);
 	}
 
 }
\ No newline at end of file
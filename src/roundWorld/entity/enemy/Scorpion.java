@@ -1,9 +1,9 @@
 package roundWorld.entity.enemy;
 
-import java.awt.Rectangle;
-
-import roundWorld.graphics.Screen;
-import roundWorld.stage.Stage;
+import roundWorld.graphics.Animation;
+import roundWorld.graphics.Sprites;
+import roundWorld.stage.Ring;
+import roundWorld.stage.SplitRandom;
 
 /**
  * An aggressive enemy who follows the player and makes attacks against him.
@@ -17,13 +17,32 @@ public class Scorpion extends Enemy {
 
 	public static final int SPRITE_WIDTH = 100, SPRITE_HEIGHT = 50, BASE_SPEED = 1;
 	
+	/**
+	 * The animation of each action. While idle he recovers from his attack
+	 * and then holds his ready sprite. The attack leaves the count running,
+	 * as his AI times his recovery from it.
+	 */
+	private static final Animation[] ANIMATIONS = Animation.table(Action.values().length, new Animation(sprite(1, 1)));
+	static {
+		ANIMATIONS[Action.IDLE.ordinal()] = new Animation(6, Animation.repeat(
+				new int[] { sprite(4, 1), sprite(3, 1), sprite(1, 1) },
+				new int[] { 20, 1, 1 }), 21);
+		ANIMATIONS[Action.WALK.ordinal()] = new Animation(10, new int[] {
+				sprite(1, 2), sprite(2, 2), sprite(3, 2), sprite(4, 2) }, 40, sprite(1, 2), 0);
+		ANIMATIONS[Action.ATTACK.ordinal()] = new Animation(6, new int[] {
+				sprite(1, 1), sprite(2, 1), sprite(1, 1), sprite(2, 1), sprite(1, 1), sprite(2, 1),
+				sprite(1, 1), sprite(2, 1), sprite(1, 1), sprite(3, 1), sprite(4, 1), sprite(4, 1) },
+				72, sprite(4, 1), Animation.HOLD);
+	}
+	
 	/**
 	 * Constructor initialized declared variables from super class with
 	 * constants declared at this level. Hit box properties are also set
 	 */
-	public Scorpion(Direction direction, Action inAction, int position, double playerPosition, int inColour) {
-		super(direction, inAction, position, playerPosition, inColour);
+	public Scorpion(Direction direction, Action inAction, int position, double playerPosition, int inColour, SplitRandom inRandom) {
+		super(direction, inAction, position, playerPosition, inColour, inRandom);
 		BLUE_ROW_OFFSET = 2;
+		animations = ANIMATIONS;
 		
 		name = "Scorpion";
 		
@@ -44,7 +63,7 @@ public class Scorpion extends Enemy {
 	 * to attack, and idling between an attack and walking again.
 	 */
 	@Override
-	public void aiUpdate(double playerLocation) {
+	public void aiUpdate(int playerLocation) {
 		switch (action) {
 		case IDLE:
 			state.lockReverse();
@@ -54,37 +73,30 @@ public class Scorpion extends Enemy {
 			break;
 		case WALK:
 			turnAroundTime--;
-			double distance = rotation / Stage.RADIAN_PER_PIXEL;
-
-			while (distance < 0) {
-				distance += 5024;
-			}
-			while (distance > 5024) {
-				distance -= 5024;
-			}
+			double distance = getDistanceFromPlayer();
 
-			if ((distance > 4964 && state.getDirectionState() == Direction.LEFT) ||
+			if ((distance > Ring.UNITS - 60 && state.getDirectionState() == Direction.LEFT) ||
 				(distance < 60 && state.getDirectionState() == Direction.RIGHT)) {
 				
 				action = Action.ATTACK;
-				turnAroundTime = 300 + (int) (Math.random() * 10);
+				turnAroundTime = 300 + (int) (random.nextDouble() * 10);
 				break;
 			}
 			if (turnAroundTime <= 0) {
 				if (distance > 250 && distance < 500 && state.getDirectionState() == Direction.LEFT) {
 					state.moveRight();
-					turnAroundTime = 300 + (int) (Math.random() * 10);
+					turnAroundTime = 300 + (int) (random.nextDouble() * 10);
 					break;
 				}
 				
-				if (distance < 4774 && distance > 4524 && state.getDirectionState() == Direction.RIGHT) {
+				if (distance < Ring.UNITS - 250 && distance > Ring.UNITS - 500 && state.getDirectionState() == Direction.RIGHT) {
 					state.moveLeft();
-					turnAroundTime = 300 + (int) (Math.random() * 10);
+					turnAroundTime = 300 + (int) (random.nextDouble() * 10);
 					break;
 				}
 				
-				if (distance > 500 && distance < 4524) {
-					turnAroundTime = 300 + (int) (Math.random() * 20);
+				if (distance > 500 && distance < Ring.UNITS - 500) {
+					turnAroundTime = 300 + (int) (random.nextDouble() * 20);
 					state.switchDirection();
 				}
 			}
@@ -100,84 +112,22 @@ public class Scorpion extends Enemy {
 	}
 	
 	/**
-	 * Uses information from the state class to animate between sprites and load
-	 * necessary values into an array which will be sent back to the parents
-	 * render method
-	 * 
-	 * @return an Array containing information needed to load the correct sprite
+	 * The Scorpion recovers after his attack has finished.
 	 */
 	@Override
-	public int[] getColumnRowType(int animationCount) {
-		int columnRowType[] = new int[3];
-
-		columnRowType[2] = Screen.SCORPION;
-		int framesPerSprite;
-		
-		switch (action) {
-		case IDLE:
-			columnRowType[1] = 1;
-			if (animationCount < 120) {
-				columnRowType[0] = 4;
-			} else if (animationCount < 126) {
-				columnRowType[0] = 3;
-			} else {
-				columnRowType[0] = 1;
-			}
-			break;
-		case WALK:
-			columnRowType[1] = 2;
-			framesPerSprite = 10;
-			if (animationCount < framesPerSprite) {
-				columnRowType[0] = 1;
-			} else if (animationCount < framesPerSprite * 2) {
-				columnRowType[0] = 2;
-			} else if (animationCount < framesPerSprite * 3) {
-				columnRowType[0] = 3;
-			} else if (animationCount < framesPerSprite * 4) {
-				columnRowType[0] = 4;
-			} else {
-				columnRowType[0] = 1;
-				state.resetAnimationCount();
-			}
-			break;
-		case ATTACK:
-			columnRowType[1] = 1;
-			framesPerSprite = 6;
-			if (animationCount < framesPerSprite) {
-				columnRowType[0] = 1;
-			} else if (animationCount < framesPerSprite * 2) {
-				columnRowType[0] = 2;
-			} else if (animationCount < framesPerSprite * 3) {
-				columnRowType[0] = 1;
-			} else if (animationCount < framesPerSprite * 4) {
-				columnRowType[0] = 2;
-			} else if (animationCount < framesPerSprite * 5) {
-				columnRowType[0] = 1;
-			} else if (animationCount < framesPerSprite * 6) {
-				columnRowType[0] = 2;
-			} else if (animationCount < framesPerSprite * 7) {
-				columnRowType[0] = 1;
-			} else if (animationCount < framesPerSprite * 8) {
-				columnRowType[0] = 2;
-			} else if (animationCount < framesPerSprite * 9) {
-				columnRowType[0] = 1;
-			} else if (animationCount < framesPerSprite * 10) {
-				columnRowType[0] = 3;
-			} else if (animationCount < framesPerSprite * 12) {
-				columnRowType[0] = 4;
-			} else {
-				action = Action.IDLE;
-				columnRowType[0] = 4;
-			}
-			break;
-
-		default:
-			columnRowType[0] = 1;
-			columnRowType[1] = 1;
+	protected void animationFinished() {
+		if (action == Action.ATTACK) {
+			action = Action.IDLE;
 		}
-		
-
-		return columnRowType;
+	}
+	
+	/**
+	 * Packs one of the Scorpion's sprites
+	 * 
+	 * @return the packed sprite in the given column and row
+	 */
+	private static int sprite(int column, int row) {
+		return Animation.sprite(Sprites.SCORPION, column, row);
 	}
 	
 	/**
@@ -191,7 +141,7 @@ public class Scorpion extends Enemy {
 			return;
 		}
 
-		turnAroundTime += 300 + (int)(Math.random() * 20);
+		turnAroundTime += 300 + (int)(random.nextDouble() * 20);
 		state.lockReverse();
 		Direction direction = state.getDirectionState();
 		if (direction == Direction.LEFT) {
@@ -209,60 +159,28 @@ public class Scorpion extends Enemy {
 	
 	/**
 	 * Calculates an Entities hit box and positions it correctly based on
-	 * current variables
-	 * 
-	 * @return Rectangle to check for intersection with another entities hit box
+	 * current variables. The hit box reaches further while the Scorpion
+	 * strikes
 	 */
 	@Override
-	public Rectangle getHitBox() {
+	public void updateHitBox() {
 		if (action == Action.DYING) {
-			return new Rectangle((int) 0, 0, 0, 0);
+			clearHitBox();
+			return;
 		}
-		int hitBoxX = 0;
-		int hitBoxY = 0;
-		Rectangle hitBox = null;
 		switch (action) {
 		case IDLE:
-			if (getDirection() == Direction.LEFT) {
-				hitBoxX = (int) (x - (spriteWidth / 2)) + (spriteWidth - 50 - 34);
-			}
-		
-			if (getDirection() == Direction.RIGHT) {
-				hitBoxX = (int) (x - (spriteWidth / 2)) + 34;
-			}
-		
-			hitBoxY = (int) (y - spriteHeight) + 17;
-			hitBox = new Rectangle((int) hitBoxX, hitBoxY, 50, 34);
-			return hitBox;
+			placeHitBox(50, 34, 34, 17);
+			return;
 		case ATTACK:
 			if (state.getAnimationCount() >= 6 * 11 && state.getAnimationCount() < 6*13) {
-				if (getDirection() == Direction.LEFT) {
-					hitBoxX = (int) (x - (spriteWidth / 2)) + (spriteWidth - 67 - 34);
-				}
-			
-				if (getDirection() == Direction.RIGHT) {
-					hitBoxX = (int) (x - (spriteWidth / 2)) + 34;
-				}
-			
-				hitBoxY = (int) (y - spriteHeight) + 17;
-				hitBox = new Rectangle((int) hitBoxX, hitBoxY, 67, 34);
-				return hitBox;
+				placeHitBox(67, 34, 34, 17);
+				return;
 			}
 		default:
-			if (getDirection() == Direction.LEFT) {
-				hitBoxX = (int) (x - (spriteWidth / 2)) + (spriteWidth - hitBoxWidth - hitBoxOffsetX);
-			}
-
-			if (getDirection() == Direction.RIGHT) {
-				hitBoxX = (int) (x - (spriteWidth / 2)) + hitBoxOffsetX;
-			}
-
-			hitBoxY = (int) (y - spriteHeight) + hitBoxOffsetY;
-			hitBox = new Rectangle((int) hitBoxX, hitBoxY, hitBoxWidth, hitBoxHeight);
+			placeHitBox(hitBoxWidth, hitBoxHeight, hitBoxOffsetX, hitBoxOffsetY);
 			break;
 		}
-
-		return hitBox;
 	}
 
 }
@@ -1,10 +1,13 @@
 package roundWorld.entity.enemy;
 
-import java.awt.Rectangle;
+import java.nio.ByteBuffer;
 
-import roundWorld.graphics.Screen;
-import roundWorld.stage.Level;
-import roundWorld.stage.Stage;
+import roundWorld.graphics.Animation;
+import roundWorld.graphics.Sprites;
+import roundWorld.stage.LevelSnapshot;
+import roundWorld.stage.Ring;
+import roundWorld.stage.SpawnQueue;
+import roundWorld.stage.SplitRandom;
 
 /**
  * The Witch is the game's boss. She spends most of the time hovering
@@ -22,6 +25,30 @@ public class Witch extends Enemy {
 
 	public static final int SPRITE_WIDTH = 100, SPRITE_HEIGHT = 325, BASE_SPEED = 6;
 	
+	/**
+	 * The animation of each action. Her jump settles into a loop on her
+	 * broom, which keeps the count running for her AI.
+	 */
+	private static final Animation[] ANIMATIONS = Animation.table(Action.values().length, new Animation(sprite(1, 2)));
+	static {
+		ANIMATIONS[Action.IDLE.ordinal()] = new Animation(6, new int[] {
+				sprite(1, 3), sprite(2, 3), sprite(3, 3), sprite(4, 3) }, 24, sprite(1, 3), 0);
+		ANIMATIONS[Action.WALK.ordinal()] = new Animation(sprite(1, 1));
+		ANIMATIONS[Action.ROLL.ordinal()] = new Animation(10, Animation.repeat(
+				new int[] { sprite(1, 2), sprite(2, 2), sprite(3, 2), sprite(4, 2), sprite(5, 2), sprite(6, 2) },
+				new int[] { 6, 1, 1, 1, 1, 1 }), 10);
+		ANIMATIONS[Action.JUMP.ordinal()] = new Animation(2, Animation.repeat(
+				new int[] { sprite(1, 4), sprite(2, 4), sprite(3, 4), sprite(4, 4), sprite(5, 4), sprite(6, 4),
+						sprite(2, 1), sprite(3, 1), sprite(4, 1), sprite(5, 1), sprite(6, 1) },
+				new int[] { 10, 2, 2, 4, 2, 2, 2, 1, 1, 1, 1 }), 24);
+		ANIMATIONS[Action.DYING.ordinal()] = new Animation(sprite(1, 4));
+	}
+	
+	/**
+	 * The animations of casting each of her spells.
+	 */
+	private static final Animation FIREBALL_ATTACK = castAnimation(3), LIGHTNING_ATTACK = castAnimation(5);
+	
 	
 	/**
 	 * Used during the Witch's AI routine. It is used as a delay between her
@@ -49,14 +76,20 @@ public class Witch extends Enemy {
 	 */
 	private int nextSpell;
 	
+	/**
+	 * The queue of the Level she is on, which her spells are sent to
+	 */
+	private SpawnQueue spawns;
+	
 	
 	/**
 	 * Constructor initialized declared variables from super class with
 	 * constants declared at this level. Hit box properties are also set
 	 */
-	public Witch(Direction direction, Action inAction, int position, double playerPosition, int inColour) {
-		super(direction, inAction, position, playerPosition, inColour);
+	public Witch(Direction direction, Action inAction, int position, double playerPosition, int inColour, SplitRandom inRandom) {
+		super(direction, inAction, position, playerPosition, inColour, inRandom);
 		name = "Witch";
+		animations = ANIMATIONS;
 		
 		spriteWidth = SPRITE_WIDTH;
 		spriteHeight = SPRITE_HEIGHT;
@@ -82,10 +115,10 @@ public class Witch extends Enemy {
 	 * to control her special death sequence.
 	 * 
 	 * @param playerLocation
-	 *            Rotation value of the Player
+	 *            Ring angle the Player has turned since the last update
 	 */
 	@Override
-	public void update(double playerLocation) {
+	public void update(int playerLocation) {
 
 		state.decrementReverseLock();
 		rotation -= playerLocation;
@@ -119,14 +152,8 @@ public class Witch extends Enemy {
 	 * @param playerLocation The location of the player to determine current distance.
 	 */
 	@Override
-	public void aiUpdate(double playerLocation) {
-		double distance = rotation / Stage.RADIAN_PER_PIXEL;
-		while (distance < 0) {
-			distance += 5024;
-		}
-		while (distance > 5024) {
-			distance -= 5024;
-		}
+	public void aiUpdate(int playerLocation) {
+		double distance = getDistanceFromPlayer();
 		switch (action) {
 		case IDLE:
 
@@ -139,25 +166,25 @@ public class Witch extends Enemy {
 			break;
 		case WALK:
 			if (spellDelay == 0) {
-				Level.witchCastSpell(nextSpell);
-				nextSpell = (Math.random() < 0.5 ? FIREBALL : LIGHTNING);
+				castSpell(nextSpell);
+				nextSpell = (random.nextDouble() < 0.5 ? FIREBALL : LIGHTNING);
 				spellDelay = health * 15;
 			}
 			if (state.getDirectionState() == Direction.LEFT) {
-				if (distance > 150 && distance < 3200) {
+				if (distance > 150 && distance < Ring.UNITS - 1824) {
 					speed = 3;
 				}
-				if (distance > 200 && distance < 4804) {
+				if (distance > 200 && distance < Ring.UNITS - 220) {
 					speed = BASE_SPEED;
 					state.moveRight();
 				}
 			}
 			
 			if (state.getDirectionState() == Direction.RIGHT) {
-				if (distance < 4874 && distance > 3220) {
+				if (distance < Ring.UNITS - 150 && distance > Ring.UNITS - 1804) {
 					speed = 3;
 				}
-				if (distance < 4824 && distance > 3220) {
+				if (distance < Ring.UNITS - 200 && distance > Ring.UNITS - 1804) {
 					speed = BASE_SPEED;
 					state.moveLeft();
 				}
@@ -212,153 +239,70 @@ public class Witch extends Enemy {
 	
 	
 	/**
-	 * Uses information from the state class to animate between sprites and load
-	 * necessary values into an array which will be sent back to the parents
-	 * render method
+	 * Returns the animation of the current action. Her attack animation
+	 * depends on the spell she is casting.
 	 * 
-	 * @return an Array containing information needed to load the correct sprite
+	 * @return the animation to play
 	 */
 	@Override
-	public int[] getColumnRowType(int animationCount) {
-		int columnRowType[] = new int[3];
-
-		columnRowType[2] = Screen.WITCH;
-		int framesPerSprite;
-		
-		switch (action) {
-		case IDLE:
-			columnRowType[1] = 3;
-			framesPerSprite = 6;
-			if (animationCount < framesPerSprite) {
-				columnRowType[0] = 1;
-			} else if (animationCount < framesPerSprite * 2) {
-				columnRowType[0] = 2;
-			} else if (animationCount < framesPerSprite * 3) {
-				columnRowType[0] = 3;
-			} else if (animationCount < framesPerSprite * 4) {
-				columnRowType[0] = 4;
-			} else {
-				columnRowType[0] = 1;
-				state.resetAnimationCount();
-			}
-
-			break;
-		case WALK:
-			columnRowType[0] = 1;
-			columnRowType[1] = 1;
-			break;
-		case ATTACK:
-			framesPerSprite = 2;
-			columnRowType[1] = 1;
-			if (animationCount < framesPerSprite * 10) {
-				columnRowType[0] = 2;
-			} else if (animationCount > framesPerSprite * 40) {
-				columnRowType[0] = 2;
-				action = Action.WALK;
-			} else if (animationCount % 4 <= 1) {
-				columnRowType[0] = (nextSpell == FIREBALL ? 3 : 5);
-			} else {
-				columnRowType[0] = (nextSpell == FIREBALL ? 4 : 6);
-			}
-			
-			break;
-			
-		case ROLL:
-			framesPerSprite = 10;
-			columnRowType[1] = 2;
-			if (animationCount < framesPerSprite * 6) {
-				columnRowType[0] = 1;
-			} else if (animationCount < framesPerSprite * 7) {
-				columnRowType[0] = 2;
-			} else if (animationCount < framesPerSprite * 8) {
-				columnRowType[0] = 3;
-			} else if (animationCount < framesPerSprite * 9) {
-				columnRowType[0] = 4;
-			} else if (animationCount < framesPerSprite * 10) {
-				columnRowType[0] = 5;
-			} else {
-				columnRowType[0] = 6;
-			}
-			break;
-		case JUMP:
-			framesPerSprite = 2;
-			if (animationCount < framesPerSprite * 10) {
-				columnRowType[1] = 4;
-				columnRowType[0] = 1;
-			} else if (animationCount < framesPerSprite * 12) {
-				columnRowType[1] = 4;
-				columnRowType[0] = 2;
-			} else if (animationCount < framesPerSprite * 14) {
-				columnRowType[1] = 4;
-				columnRowType[0] = 3;
-			} else if (animationCount < framesPerSprite * 18) {
-				columnRowType[1] = 4;
-				columnRowType[0] = 4;
-			} else if (animationCount < framesPerSprite * 20) {
-				columnRowType[1] = 4;
-				columnRowType[0] = 5;
-			} else if (animationCount < framesPerSprite * 22) {
-				columnRowType[1] = 4;
-				columnRowType[0] = 6;
-			} else if (animationCount < framesPerSprite * 24) {
-				columnRowType[1] = 1;
-				columnRowType[0] = 2;
-			} else if (animationCount % 8 <= 1) {
-				columnRowType[1] = 1;
-				columnRowType[0] = 3;
-			} else if (animationCount % 8 <= 3) {
-				columnRowType[1] = 1;
-				columnRowType[0] = 4;
-			} else if (animationCount % 8 <= 5) {
-				columnRowType[1] = 1;
-				columnRowType[0] = 5;
+	protected Animation getAnimation() {
+		if (action == Action.ATTACK) {
+			return (nextSpell == FIREBALL ? FIREBALL_ATTACK : LIGHTNING_ATTACK);
+		}
+		return animations[action.ordinal()];
+	}
+	
+	/**
+	 * She returns to her broom once a spell has been cast.
+	 */
+	@Override
+	protected void animationFinished() {
+		if (action == Action.ATTACK) {
+			action = Action.WALK;
+		}
+	}
+	
+	/**
+	 * Packs one of the Witch's sprites
+	 * 
+	 * @return the packed sprite in the given column and row
+	 */
+	private static int sprite(int column, int row) {
+		return Animation.sprite(Sprites.WITCH, column, row);
+	}
+	
+	/**
+	 * Builds the animation of casting a spell. She raises her staff, then
+	 * alternates between the spell's two sprites until it is cast.
+	 * 
+	 * @param firstColumn the column of the spell's first sprite.
+	 * @return the attack animation.
+	 */
+	private static Animation castAnimation(int firstColumn) {
+		int[] sprites = new int[41];
+		for (int i = 0; i < sprites.length; i++) {
+			if (i < 10) {
+				sprites[i] = sprite(2, 1);
 			} else {
-				columnRowType[1] = 1;
-				columnRowType[0] = 6;
+				sprites[i] = sprite(firstColumn + i % 2, 1);
 			}
-			break;
-		case DYING:
-			columnRowType[1] = 4;
-			columnRowType[0] = 1;
-			break;
-			
-		default:
-			columnRowType[0] = 1;
-			columnRowType[1] = 2;
 		}
-		
-
-		return columnRowType;
+		return new Animation(2, sprites, 81, sprite(2, 1), Animation.HOLD);
 	}
 	
 	
 	/**
 	 * Calculates an Entities hit box and positions it correctly based on
-	 * current variables
-	 * 
-	 * @return Rectangle to check for intersection with another entities hit box
+	 * current variables. The Witch can only be hit while she is idle
 	 */
 	@Override
-	public Rectangle getHitBox() {
+	public void updateHitBox() {
 		if (action != Action.IDLE) {
-			return new Rectangle((int) 0, 0, 0, 0);
+			clearHitBox();
+			return;
 		}
 		
-		int hitBoxX = 0;
-		int hitBoxY = 0;
-		Rectangle hitBox = null;
-		
-		if (getDirection() == Direction.LEFT) {
-			hitBoxX = (int) (x - (spriteWidth / 2)) + (spriteWidth - hitBoxWidth - hitBoxOffsetX);
-		}
-		if (getDirection() == Direction.RIGHT) {
-			hitBoxX = (int) (x - (spriteWidth / 2)) + hitBoxOffsetX;
-		}
-
-		hitBoxY = (int) (y - spriteHeight) + hitBoxOffsetY;
-		hitBox = new Rectangle((int) hitBoxX, hitBoxY, hitBoxWidth, hitBoxHeight);
-
-		return hitBox;
+		placeHitBox(hitBoxWidth, hitBoxHeight, hitBoxOffsetX, hitBoxOffsetY);
 	}
 	
 	/**
@@ -383,6 +327,32 @@ public class Witch extends Enemy {
 	public void canCast(boolean inCanCast) {
 		canCast = inCanCast;
 	}
+
+	/**
+	 * Sets the queue her spells are sent to. It should be the queue
+	 * of the Level she was added to.
+	 * @param inSpawns
+	 */
+	public void setSpawnQueue(SpawnQueue inSpawns) {
+		spawns = inSpawns;
+	}
+
+	/**
+	 * Sends a spell to the Level to be created in its next update.
+	 * The spell chosen while the level starts casts nothing.
+	 *
+	 * @param spell the spell to be cast.
+	 */
+	private void castSpell(int spell) {
+		if (spell == FIREBALL) {
+			spawns.add(SpawnQueue.FIREBALL, 400, NOCOLOUR);
+		}
+
+		if (spell == LIGHTNING) {
+			spawns.add(SpawnQueue.LIGHTNING, 0, NOCOLOUR);
+		}
+
+	}
 	
 	/**
 	 * Called when entering LEVEL_5 phases where the Witch should be
@@ -409,4 +379,32 @@ public class Witch extends Enemy {
 		return false;
 	}
 
+	/**
+	 * Writes her spell timer and next spell into a level snapshot, after
+	 * the variables common to every Enemy. Her spawn queue is not written,
+	 * the Level sets it again when she is restored.
+	 * 
+	 * @param out the buffer to write to.
+	 */
+	@Override
+	public void writeState(ByteBuffer out) {
+		super.writeState(out);
+		out.putInt(spellDelay);
+		LevelSnapshot.putBoolean(out, canCast);
+		out.putInt(nextSpell);
+	}
+
+	/**
+	 * Reads back the variables written by writeState.
+	 * 
+	 * @param in the buffer to read from.
+	 */
+	@Override
+	public void readState(ByteBuffer in) {
+		super.readState(in);
+		spellDelay = in.getInt();
+		canCast = LevelSnapshot.getBoolean(in);
+		nextSpell = in.getInt();
+	}
+
 }
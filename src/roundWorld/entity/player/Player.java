@@ -1,11 +1,14 @@
 package roundWorld.entity.player;
 
-import java.awt.Rectangle;
-import java.awt.event.KeyEvent;
+import java.nio.ByteBuffer;
 
 import roundWorld.entity.Entity;
 import roundWorld.entity.enemy.Enemy;
-import roundWorld.graphics.Screen;
+import roundWorld.graphics.Animation;
+import roundWorld.graphics.FrameSnapshot;
+import roundWorld.graphics.Sprites;
+import roundWorld.input.Keys;
+import roundWorld.stage.LevelSnapshot;
 
 /**
  * Contains all actions, manages input and updates animations required for the
@@ -19,6 +22,33 @@ public class Player extends Entity {
 	 * Constant values for the width/height of sprites, and default speed
 	 */
 	public static final int SPRITE_WIDTH = 200, SPRITE_HEIGHT = 135, BASE_SPEED = 5;
+	/**
+	 * The animation count at which the sword beams appear during the victory
+	 * pose
+	 */
+	private static final int VICTORY_BEAMS = 90;
+	/**
+	 * The animation of each action, indexed by the ordinal of the action
+	 */
+	private static final Animation[] ANIMATIONS = Animation.table(Action.values().length, new Animation(sprite(0, 0)));
+	static {
+		ANIMATIONS[Action.IDLE.ordinal()] = new Animation(30, new int[] {
+				sprite(1, 1), sprite(2, 1), sprite(3, 1), sprite(2, 1) }, 120, sprite(1, 1), 0);
+		ANIMATIONS[Action.WALK.ordinal()] = new Animation(10, new int[] {
+				sprite(1, 2), sprite(2, 2), sprite(3, 2), sprite(4, 2), sprite(5, 2), sprite(6, 2) }, 60, sprite(1, 2), 0);
+		ANIMATIONS[Action.JUMP.ordinal()] = new Animation(sprite(6, 3));
+		ANIMATIONS[Action.ROLL.ordinal()] = new Animation(10, new int[] {
+				sprite(1, 5), sprite(2, 5), sprite(3, 5), sprite(4, 5), sprite(5, 5), sprite(6, 5) }, 5);
+		ANIMATIONS[Action.ATTACK.ordinal()] = new Animation(6, new int[] {
+				sprite(1, 3), sprite(2, 3), sprite(3, 3), sprite(4, 3),
+				sprite(1, 4), sprite(2, 4), sprite(3, 4), sprite(4, 4) }, 48, sprite(1, 3), 0);
+		ANIMATIONS[Action.BLOCK.ordinal()] = new Animation(sprite(5, 3));
+		ANIMATIONS[Action.DAMAGED_FRONT.ordinal()] = new Animation(sprite(4, 1));
+		ANIMATIONS[Action.DAMAGED_BACK.ordinal()] = new Animation(sprite(5, 1));
+		ANIMATIONS[Action.VICTORY.ordinal()] = new Animation(10, new int[] {
+				sprite(1, 6), sprite(2, 6), sprite(3, 6), sprite(2, 6), sprite(3, 6),
+				sprite(2, 6), sprite(3, 6), sprite(2, 6), sprite(4, 6), sprite(5, 6) }, 9);
+	}
 
 	/**
 	 * For managing and limiting player actions and animations
@@ -47,6 +77,15 @@ public class Player extends Entity {
 	 * If activated on the title screen, the player never takes health damage.
 	 */
 	private boolean invincible;
+	/**
+	 * The sword attack area as of the last call to updateAttackBox
+	 */
+	private int attackBoxX, attackBoxY, attackBoxWidth, attackBoxHeight;
+	/**
+	 * The packed sprite chosen by the last call to advanceAnimation, and the
+	 * animation count it was chosen at
+	 */
+	private int currentSprite, currentCount;
 
 	/**
 	 * Constructor initializes state machine and sets variables to defaults
@@ -87,9 +126,9 @@ public class Player extends Entity {
 	 * Called by the level to use as reference for the stage and enemies, so
 	 * they can be rotated correctly
 	 * 
-	 * @return The radian value of Player rotation as reference
+	 * @return The ring angle of Player rotation as reference
 	 */
-	public double getRotation() {
+	public int getRotation() {
 		return rotation;
 	}
 
@@ -133,17 +172,21 @@ public class Player extends Entity {
 	}
 
 	/**
-	 * Builds a hit box to represent the sword attack area. Used to check
-	 * intersection with enemies so they can be defeated
-	 * 
-	 * @return Rectangle object using same coordinate system as other hit boxes
+	 * Positions the hit box that represents the sword attack area. Used to
+	 * check intersection with enemies so they can be defeated. Called once per
+	 * update, and kept in the attack box variables, which use the same
+	 * coordinate system as other hit boxes
 	 */
-	public Rectangle getAttackBox() {
+	public void updateAttackBox() {
 		int animationCount = state.getAnimationCount();
 		if (animationCount < 6 ||
 			(animationCount >= 6*3 && animationCount < 6*5) ||
 			animationCount >= 6*7) {
-			return new Rectangle(0, 0, 0, 0);
+			attackBoxX = 0;
+			attackBoxY = 0;
+			attackBoxWidth = 0;
+			attackBoxHeight = 0;
+			return;
 		}
 		int attackOffsetX = 118;
 		int attackOffsetY = 48;
@@ -152,16 +195,45 @@ public class Player extends Entity {
 		int hitBoxX = 0;
 
 		if (state.getDirectionState() == Direction.LEFT) {
-			hitBoxX = (int) (x - (spriteWidth / 2)) + (spriteWidth - attackWidth - attackOffsetX);
+			hitBoxX = (int) (getX() - (spriteWidth / 2)) + (spriteWidth - attackWidth - attackOffsetX);
 		}
 
 		if (state.getDirectionState() == Direction.RIGHT) {
-			hitBoxX = (int) (x - (spriteWidth / 2)) + attackOffsetX;
+			hitBoxX = (int) (getX() - (spriteWidth / 2)) + attackOffsetX;
 		}
 
-		int hitBoxY = (int) (y - spriteHeight) + attackOffsetY;
+		attackBoxX = hitBoxX;
+		attackBoxY = (int) (y - spriteHeight) + attackOffsetY;
+		attackBoxWidth = attackWidth;
+		attackBoxHeight = attackHeight;
+	}
+
+	/**
+	 * @return The x coordinate of the left edge of the attack box
+	 */
+	public int getAttackBoxX() {
+		return attackBoxX;
+	}
 
-		return new Rectangle((int) hitBoxX, hitBoxY, attackWidth, attackHeight);
+	/**
+	 * @return The y coordinate of the top edge of the attack box
+	 */
+	public int getAttackBoxY() {
+		return attackBoxY;
+	}
+
+	/**
+	 * @return The width of the attack box, zero if the sword cannot hit
+	 */
+	public int getAttackBoxWidth() {
+		return attackBoxWidth;
+	}
+
+	/**
+	 * @return The height of the attack box, zero if the sword cannot hit
+	 */
+	public int getAttackBoxHeight() {
+		return attackBoxHeight;
 	}
 
 	/**
@@ -266,168 +338,57 @@ public class Player extends Entity {
 	}
 
 	/**
-	 * Called by the Level class. The values within the state object determine
-	 * which sprite to draw for this update and where to draw it on the Y axis.
-	 * Animation is simulated by an incrementing counter called by conditionals
-	 * 
-	 * @param screen
-	 *            The Screen object for sending the values for the determined
-	 *            sprite and position to be drawn
+	 * Called by the Level class once per update. Animation is simulated by an
+	 * incrementing counter, which picks the sprite from the animation table
+	 * of the current action. The counter restarts once the animation
+	 * finishes
 	 */
-	public void render(Screen screen) {
+	public void advanceAnimation() {
 		int animationCount = state.getAnimationCount();
 		state.incrementAnimationCount();
 
+		Animation animation = ANIMATIONS[state.getActionState().ordinal()];
+		currentSprite = animation.getSprite(animationCount);
+		currentCount = animationCount;
+		if (animation.isFinished(animationCount)) {
+			state.resetAnimationCount();
+		}
+	}
+
+	/**
+	 * Called by the Level class. The values within the state object determine
+	 * where to draw the sprite chosen by the last advanceAnimation on the Y
+	 * axis. Rendering does not change the Player
+	 * 
+	 * @param frame
+	 *            The snapshot for recording the values for the determined
+	 *            sprite and position to be drawn
+	 */
+	public void render(FrameSnapshot frame) {
 		int direction = 0;
 		if (state.getDirectionState() == Direction.LEFT) {
-			direction = Screen.LEFT;
+			direction = Sprites.LEFT;
 		}
 
 		if (state.getDirectionState() == Direction.RIGHT) {
-			direction = Screen.RIGHT;
+			direction = Sprites.RIGHT;
 		}
 
-		int framesPerSprite;
-		int column = 0;
-		int row = 0;
-
-		switch (state.getActionState()) {
-		case IDLE:
-			framesPerSprite = 30;
-			row = 1;
-
-			if (animationCount < framesPerSprite) {
-				column = 1;
-			} else if (animationCount < framesPerSprite * 2) {
-				column = 2;
-			} else if (animationCount < framesPerSprite * 3) {
-				column = 3;
-			} else if (animationCount < framesPerSprite * 4) {
-				column = 2;
-			} else {
-				column = 1;
-				state.resetAnimationCount();
-			}
-			break;
-		case WALK:
-			framesPerSprite = 10;
-			row = 2;
-
-			if (animationCount < framesPerSprite) {
-				column = 1;
-			} else if (animationCount < framesPerSprite * 2) {
-				column = 2;
-			} else if (animationCount < framesPerSprite * 3) {
-				column = 3;
-			} else if (animationCount < framesPerSprite * 4) {
-				column = 4;
-			} else if (animationCount < framesPerSprite * 5) {
-				column = 5;
-			} else if (animationCount < framesPerSprite * 6) {
-				column = 6;
-			} else {
-				column = 1;
-				state.resetAnimationCount();
-			}
-			break;
-		case JUMP:
-			column = 6;
-			row = 3;
-			break;
-		case ROLL:
-			framesPerSprite = 10;
-			row = 5;
-
-			if (animationCount < framesPerSprite) {
-				column = 1;
-			} else if (animationCount < framesPerSprite * 2) {
-				column = 2;
-			} else if (animationCount < framesPerSprite * 3) {
-				column = 3;
-			} else if (animationCount < framesPerSprite * 4) {
-				column = 4;
-			} else if (animationCount < framesPerSprite * 5) {
-				column = 5;
-			} else {
-				column = 6;
-			}
-			break;
-		case ATTACK:
-			framesPerSprite = 6;
-
-			if (animationCount < framesPerSprite) {
-				column = 1;
-				row = 3;
-			} else if (animationCount < framesPerSprite * 2) {
-				column = 2;
-				row = 3;
-			} else if (animationCount < framesPerSprite * 3) {
-				column = 3;
-				row = 3;
-			} else if (animationCount < framesPerSprite * 4) {
-				column = 4;
-				row = 3;
-			} else if (animationCount < framesPerSprite * 5) {
-				column = 1;
-				row = 4;
-			} else if (animationCount < framesPerSprite * 6) {
-				column = 2;
-				row = 4;
-			} else if (animationCount < framesPerSprite * 7) {
-				column = 3;
-				row = 4;
-			} else if (animationCount < framesPerSprite * 8) {
-				column = 4;
-				row = 4;
-			} else {
-				column = 1;
-				row = 3;
-				state.resetAnimationCount();
-			}
-			break;
-		case BLOCK:
-			row = 3;
-			column = 5;
-			break;
-		case DAMAGED_FRONT:
-			row = 1;
-			column = 4;
-			break;
-		case DAMAGED_BACK:
-			row = 1;
-			column = 5;
-			break;
-		case VICTORY:
-			framesPerSprite = 10;
-			row = 6;
-			
-			if (animationCount < framesPerSprite) {
-				column = 1;
-			} else if (animationCount < framesPerSprite * 2) {
-				column = 2;
-			} else if (animationCount < framesPerSprite * 3) {
-				column = 3;
-			} else if (animationCount < framesPerSprite * 4) {
-				column = 2;
-			} else if (animationCount < framesPerSprite * 5) {
-				column = 3;
-			} else if (animationCount < framesPerSprite * 6) {
-				column = 2;
-			} else if (animationCount < framesPerSprite * 7) {
-				column = 3;
-			} else if (animationCount < framesPerSprite * 8) {
-				column = 2;
-			} else if (animationCount < framesPerSprite * 9) {
-				column = 4;
-			} else {
-				column = 5;
-				screen.drawBeams(animationCount);
-			}
-		default:
-			break;
+		if (state.getActionState() == Action.VICTORY && currentCount >= VICTORY_BEAMS) {
+			frame.drawBeams(currentCount);
 		}
 
-		screen.drawSprite(Screen.PLAYER, direction, column, row, y, 0);
+		frame.drawSprite(Animation.getType(currentSprite), direction, Animation.getColumn(currentSprite),
+				Animation.getRow(currentSprite), previousY, y, 0);
+	}
+
+	/**
+	 * Packs one of the Player's sprites
+	 * 
+	 * @return the packed sprite in the given column and row
+	 */
+	private static int sprite(int column, int row) {
+		return Animation.sprite(Sprites.PLAYER, column, row);
 	}
 	
 	/**
@@ -436,23 +397,23 @@ public class Player extends Entity {
 	 * player fade from view. The actual alpha value used is twice the
 	 * value of filter.
 	 * 
-	 * @param screen  
-	 * 			  The Screen object for sending the values for the determined
+	 * @param frame  
+	 * 			  The snapshot for recording the values for the determined
 	 *            sprite and position to be drawn
 	 * @param filter The filter to be used for the alpha fading.
 	 */
-	public void render(Screen screen, int filter) {
+	public void render(FrameSnapshot frame, int filter) {
 		if (filter == 0) {
 			return;
 		}
 		
 		int direction = 0;
 		if (state.getDirectionState() == Direction.LEFT) {
-			direction = Screen.LEFT;
+			direction = Sprites.LEFT;
 		}
 
 		if (state.getDirectionState() == Direction.RIGHT) {
-			direction = Screen.RIGHT;
+			direction = Sprites.RIGHT;
 		}
 		
 		int column = 0;
@@ -472,7 +433,7 @@ public class Player extends Entity {
 		}
 
 
-		screen.drawSprite(Screen.PLAYER, direction, column, row, y, filter);
+		frame.drawSprite(Sprites.PLAYER, direction, column, row, previousY, y, filter);
 	}
 
 	/**
@@ -487,22 +448,22 @@ public class Player extends Entity {
 			return;
 		}
 		switch (keyCode) {
-		case KeyEvent.VK_LEFT:
+		case Keys.LEFT:
 			state.moveLeft();
 			break;
-		case KeyEvent.VK_RIGHT:
+		case Keys.RIGHT:
 			state.moveRight();
 			break;
-		case KeyEvent.VK_C:
+		case Keys.C:
 			state.jump();
 			break;
-		case KeyEvent.VK_Z:
+		case Keys.Z:
 			state.roll();
 			break;
-		case KeyEvent.VK_X:
+		case Keys.X:
 			state.attack();
 			break;
-		case KeyEvent.VK_UP:
+		case Keys.UP:
 			state.block();
 			break;
 		default:
@@ -522,13 +483,13 @@ public class Player extends Entity {
 			return;
 		}
 		switch (keyCode) {
-		case KeyEvent.VK_LEFT:
+		case Keys.LEFT:
 			state.releaseLeft();
 			break;
-		case KeyEvent.VK_RIGHT:
+		case Keys.RIGHT:
 			state.releaseRight();
 			break;
-		case KeyEvent.VK_UP:
+		case Keys.UP:
 			state.releaseBlock();
 			break;
 		default:
@@ -581,7 +542,7 @@ public class Player extends Entity {
 		}
 
 		Direction direction = state.getDirectionState();
-		if (enemyX >= x) {
+		if (enemyX >= getX()) {
 			if (direction == Direction.LEFT) {
 				if (state.getActionState() == Action.BLOCK && immune && anEnemy.isBlockable()) {
 					immune = true;
@@ -608,7 +569,7 @@ public class Player extends Entity {
 			}
 		}
 
-		if (enemyX <= x) {
+		if (enemyX <= getX()) {
 			if (direction == Direction.LEFT) {
 				if ((state.getActionState() == Action.BLOCK || immune) && anEnemy.isBlockable()) {
 					immune = true;
@@ -644,14 +605,54 @@ public class Player extends Entity {
 	public Direction getDirection() {
 		return state.getDirectionState();
 	}
-	
+
+	/**
+	 * Writes the Player's states, health and attack box into a level
+	 * snapshot, after the variables common to every Entity
+	 * 
+	 * @param out
+	 *            The buffer to write to
+	 */
+	@Override
+	public void writeState(ByteBuffer out) {
+		super.writeState(out);
+		state.writeState(out);
+		out.putInt(health);
+		LevelSnapshot.putBoolean(out, isAcceptingInput);
+		LevelSnapshot.putEnum(out, damageDirection);
+		LevelSnapshot.putBoolean(out, immune);
+		LevelSnapshot.putBoolean(out, invincible);
+		out.putInt(attackBoxX);
+		out.putInt(attackBoxY);
+		out.putInt(attackBoxWidth);
+		out.putInt(attackBoxHeight);
+		out.putInt(currentSprite);
+		out.putInt(currentCount);
+	}
+
 	/**
-	 * Returns the current x location of the player.
-	 * @return the x coordinate of the player.
+	 * Reads back the variables written by writeState
+	 * 
+	 * @param in
+	 *            The buffer to read from
 	 */
-	public double getX() {
-		return x;
+	@Override
+	public void readState(ByteBuffer in) {
+		super.readState(in);
+		state.readState(in);
+		health = in.getInt();
+		isAcceptingInput = LevelSnapshot.getBoolean(in);
+		damageDirection = LevelSnapshot.getEnum(in, DIRECTIONS);
+		immune = LevelSnapshot.getBoolean(in);
+		invincible = LevelSnapshot.getBoolean(in);
+		attackBoxX = in.getInt();
+		attackBoxY = in.getInt();
+		attackBoxWidth = in.getInt();
+		attackBoxHeight = in.getInt();
+		currentSprite = in.getInt();
+		currentCount = in.getInt();
 	}
+	
 
 
 
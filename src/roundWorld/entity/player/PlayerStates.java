@@ -1,8 +1,12 @@
 package roundWorld.entity.player;
 
+import java.nio.ByteBuffer;
+
+import roundWorld.entity.Entity;
 import roundWorld.entity.Entity.Action;
 import roundWorld.entity.Entity.Direction;
 import roundWorld.entity.Entity.Speed;
+import roundWorld.stage.LevelSnapshot;
 
 /**
  * A state machine that handles all possible actions performed by the Player
@@ -545,5 +549,51 @@ public class PlayerStates {
 		lockedRight = false;
 		attackCombo = false;
 	}
+
+	/**
+	 * Writes every state, flag and counter into a level snapshot
+	 * 
+	 * @param out
+	 *            The buffer to write to
+	 */
+	public void writeState(ByteBuffer out) {
+		LevelSnapshot.putEnum(out, directionState);
+		LevelSnapshot.putEnum(out, actionState);
+		LevelSnapshot.putBoolean(out, holdingLeft);
+		LevelSnapshot.putBoolean(out, holdingRight);
+		LevelSnapshot.putBoolean(out, lockedLeft);
+		LevelSnapshot.putBoolean(out, lockedRight);
+		LevelSnapshot.putBoolean(out, holdingBlock);
+		LevelSnapshot.putBoolean(out, attackCombo);
+		LevelSnapshot.putEnum(out, jumpSpeedState);
+		LevelSnapshot.putEnum(out, rollSpeedState);
+		out.putInt(animationCount);
+		out.putInt(rollStateCount);
+		out.putInt(attackStateCount);
+		out.putInt(damageImmunity);
+	}
+
+	/**
+	 * Reads back the variables written by writeState
+	 * 
+	 * @param in
+	 *            The buffer to read from
+	 */
+	public void readState(ByteBuffer in) {
+		directionState = LevelSnapshot.getEnum(in, Entity.DIRECTIONS);
+		actionState = LevelSnapshot.getEnum(in, Entity.ACTIONS);
+		holdingLeft = LevelSnapshot.getBoolean(in);
+		holdingRight = LevelSnapshot.getBoolean(in);
+		lockedLeft = LevelSnapshot.getBoolean(in);
+		lockedRight = LevelSnapshot.getBoolean(in);
+		holdingBlock = LevelSnapshot.getBoolean(in);
+		attackCombo = LevelSnapshot.getBoolean(in);
+		jumpSpeedState = LevelSnapshot.getEnum(in, Entity.SPEEDS);
+		rollSpeedState = LevelSnapshot.getEnum(in, Entity.SPEEDS);
+		animationCount = in.getInt();
+		rollStateCount = in.getInt();
+		attackStateCount = in.getInt();
+		damageImmunity = in.getInt();
+	}
 	
 }
\ No newline at end of file
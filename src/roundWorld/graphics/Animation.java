@@ -0,0 +1,210 @@
+package roundWorld.graphics;
+
+/**
+ * A precomputed animation for one action of an Entity. The sprites are held in
+ * a frame array indexed by the animation count divided by the number of
+ * updates each sprite is shown for, so finding the sprite to draw is a single
+ * lookup. Sprites are packed into one int holding the sprite type, column and
+ * row, so nothing is allocated when an animation is played.
+ *
+ * An animation either runs forever, looping back to a chosen frame once the
+ * array is used up (the last frame alone to hold it), or finishes once the
+ * count reaches its duration. A finished animation shows its end sprite, and
+ * its owner restarts the count from the restart count unless it is HOLD
+ *
+ * @author Andrew Black
+ *
+ */
+public class Animation {
+	/**
+	 * The restart count of an animation that leaves the count running once it
+	 * has finished
+	 */
+	public static final int HOLD = -1;
+
+	/**
+	 * The number of updates each frame of the array is shown for
+	 */
+	private final int framesPerSprite;
+	/**
+	 * The packed sprite of each frame
+	 */
+	private final int[] sprites;
+	/**
+	 * The frame that looping returns to once the array is used up
+	 */
+	private final int loopStart;
+	/**
+	 * The animation count at which the animation finishes, or 0 if it never
+	 * does, the sprite shown once it has, and the count it restarts from
+	 */
+	private final int duration, endSprite, restartCount;
+
+	/**
+	 * Constructor for an animation of a single sprite
+	 *
+	 * @param sprite
+	 *            The packed sprite
+	 */
+	public Animation(int sprite) {
+		this(1, new int[] { sprite }, 0);
+	}
+
+	/**
+	 * Constructor for an animation that never finishes
+	 *
+	 * @param inFramesPerSprite
+	 *            The number of updates each frame is shown for
+	 * @param inSprites
+	 *            The packed sprite of each frame
+	 * @param inLoopStart
+	 *            The frame to loop back to once every frame has been shown
+	 */
+	public Animation(int inFramesPerSprite, int[] inSprites, int inLoopStart) {
+		framesPerSprite = inFramesPerSprite;
+		sprites = inSprites;
+		loopStart = inLoopStart;
+		duration = 0;
+		endSprite = 0;
+		restartCount = HOLD;
+	}
+
+	/**
+	 * Constructor for an animation that finishes. The last frame is held if
+	 * the duration is longer than the frame array
+	 *
+	 * @param inFramesPerSprite
+	 *            The number of updates each frame is shown for
+	 * @param inSprites
+	 *            The packed sprite of each frame
+	 * @param inDuration
+	 *            The animation count at which the animation finishes
+	 * @param inEndSprite
+	 *            The packed sprite shown once it has finished
+	 * @param inRestartCount
+	 *            The count to restart from once it has finished, or HOLD
+	 */
+	public Animation(int inFramesPerSprite, int[] inSprites, int inDuration, int inEndSprite, int inRestartCount) {
+		framesPerSprite = inFramesPerSprite;
+		sprites = inSprites;
+		loopStart = inSprites.length - 1;
+		duration = inDuration;
+		endSprite = inEndSprite;
+		restartCount = inRestartCount;
+	}
+
+	/**
+	 * @param animationCount
+	 *            The number of updates the animation has been playing for
+	 * @return The packed sprite to draw
+	 */
+	public int getSprite(int animationCount) {
+		if (isFinished(animationCount)) {
+			return endSprite;
+		}
+
+		int index = animationCount / framesPerSprite;
+		if (index >= sprites.length) {
+			index = loopStart + (index - loopStart) % (sprites.length - loopStart);
+		}
+		return sprites[index];
+	}
+
+	/**
+	 * @param animationCount
+	 *            The number of updates the animation has been playing for
+	 * @return true if the animation has reached its duration
+	 */
+	public boolean isFinished(int animationCount) {
+		return duration > 0 && animationCount >= duration;
+	}
+
+	/**
+	 * @return The count to restart from once the animation has finished, or
+	 *         HOLD if the count should be left running
+	 */
+	public int getRestartCount() {
+		return restartCount;
+	}
+
+	/**
+	 * Builds a frame array in which each sprite is repeated for a number of
+	 * frames, for animations where some sprites are shown longer than others
+	 *
+	 * @param inSprites
+	 *            The packed sprites in order
+	 * @param repeats
+	 *            The number of frames each sprite is shown for
+	 * @return The frame array
+	 */
+	public static int[] repeat(int[] inSprites, int[] repeats) {
+		int length = 0;
+		for (int repeat : repeats) {
+			length += repeat;
+		}
+
+		int[] frames = new int[length];
+		int frame = 0;
+		for (int i = 0; i < inSprites.length; i++) {
+			for (int j = 0; j < repeats[i]; j++) {
+				frames[frame++] = inSprites[i];
+			}
+		}
+		return frames;
+	}
+
+	/**
+	 * Creates a table holding an animation for each action, with every action
+	 * starting out on the given animation
+	 *
+	 * @param actionCount
+	 *            The number of actions
+	 * @param defaultAnimation
+	 *            The animation of actions that are not given their own
+	 * @return The table, indexed by the ordinal of the action
+	 */
+	public static Animation[] table(int actionCount, Animation defaultAnimation) {
+		Animation[] table = new Animation[actionCount];
+		for (int i = 0; i < actionCount; i++) {
+			table[i] = defaultAnimation;
+		}
+		return table;
+	}
+
+	/**
+	 * Packs a sprite into one int
+	 *
+	 * @param type
+	 *            The type of entity the sprite belongs to
+	 * @param column
+	 *            The column of the sprite sheet, counted from one
+	 * @param row
+	 *            The row of the sprite sheet, counted from one
+	 * @return The packed sprite
+	 */
+	public static int sprite(int type, int column, int row) {
+		return (type << 16) | (column << 8) | row;
+	}
+
+	/**
+	 * @return The type of entity a packed sprite belongs to
+	 */
+	public static int getType(int sprite) {
+		return sprite >>> 16;
+	}
+
+	/**
+	 * @return The column of a packed sprite
+	 */
+	public static int getColumn(int sprite) {
+		return (sprite >>> 8) & 0xff;
+	}
+
+	/**
+	 * @return The row of a packed sprite
+	 */
+	public static int getRow(int sprite) {
+		return sprite & 0xff;
+	}
+
+}
@@ -0,0 +1,294 @@
+package roundWorld.graphics;
+
+import java.util.Arrays;
+
+import roundWorld.entity.enemy.Enemy;
+import roundWorld.entity.enemy.EnemyList;
+import roundWorld.stage.Colourspace;
+
+/**
+ * A recording of everything that should be drawn for one update. Level and the
+ * Entities record their draw calls into a snapshot on the game thread, and
+ * Screen later replays it on the render thread. A snapshot is reused from frame
+ * to frame, but it is never written to while Screen is drawing it, so once
+ * published it can be treated as immutable
+ *
+ * @author Andrew Black
+ *
+ */
+public class FrameSnapshot {
+	/**
+	 * The recorded operations, each of which matches a draw method in Screen
+	 */
+	static final int TITLE_SCREEN = 0, CHEAT_NOTICE = 1, HOW_TO_PLAY = 2, STAGE = 3,
+					COLOURSPACE = 4, START_EFFECT = 5, TIP = 6, HEALTH_BAR = 7,
+					MINIMAP = 8, SPRITE = 9, BEAMS = 10, CLEAR_SCREEN = 11;
+
+	/**
+	 * The recorded operations and their integer arguments, in drawing order
+	 */
+	int[] commands;
+	/**
+	 * The decimal arguments of the recorded operations, in drawing order.
+	 * Rotations are stored as a pair of their previous and current values
+	 */
+	double[] values;
+	/**
+	 * The colour and distance from the player of each minimap icon
+	 */
+	int[] markerColours;
+	double[] markerDistances;
+	/**
+	 * The number of entries used in each of the arrays above
+	 */
+	int commandCount, valueCount, markerCount;
+
+	/**
+	 * The number of the update that this snapshot was recorded after
+	 */
+	private long tick;
+	/**
+	 * The time in nanoseconds at which recording started
+	 */
+	private long recordTime;
+
+	/**
+	 * Constructor allocates room for a typical frame. The arrays grow if a
+	 * frame needs more, and are then kept for later frames
+	 */
+	public FrameSnapshot() {
+		commands = new int[256];
+		values = new double[64];
+		markerColours = new int[32];
+		markerDistances = new double[32];
+	}
+
+	/**
+	 * Empties the snapshot so that a new frame can be recorded
+	 *
+	 * @param inTick
+	 *            The number of the update being recorded
+	 */
+	public void clear(long inTick) {
+		tick = inTick;
+		recordTime = System.nanoTime();
+		commandCount = 0;
+		valueCount = 0;
+		markerCount = 0;
+	}
+
+	/**
+	 * @return The number of the update that this snapshot was recorded after
+	 */
+	public long getTick() {
+		return tick;
+	}
+
+	/**
+	 * @return The time in nanoseconds at which this snapshot was recorded
+	 */
+	public long getRecordTime() {
+		return recordTime;
+	}
+
+	/**
+	 * Records that the title screen should be drawn
+	 */
+	public void drawTitleScreen() {
+		addCommand(TITLE_SCREEN, 0);
+	}
+
+	/**
+	 * Records that the invincibility notice should be drawn
+	 */
+	public void drawCheatNotice() {
+		addCommand(CHEAT_NOTICE, 0);
+	}
+
+	/**
+	 * Records that the how-to-play image should be drawn
+	 */
+	public void drawHowToPlay() {
+		addCommand(HOW_TO_PLAY, 0);
+	}
+
+	/**
+	 * Records the stage at its previous and current rotation
+	 *
+	 * @param previousStageRotation
+	 *            the angle that the stage was rotated after the previous update
+	 * @param stageRotation
+	 *            the current angle that the stage will be rotated
+	 * @param isStageFive
+	 *            whether the level five stage image should be used
+	 */
+	public void drawStage(double previousStageRotation, double stageRotation, boolean isStageFive) {
+		addCommand(STAGE, 1);
+		addArgument(isStageFive ? 1 : 0);
+		addValue(previousStageRotation);
+		addValue(stageRotation);
+	}
+
+	/**
+	 * Records the current state and animation frame of the colourspace
+	 *
+	 * @param colourspace
+	 *            The colourspace to draw
+	 */
+	public void drawColourspace(Colourspace colourspace) {
+		addCommand(COLOURSPACE, 2);
+		addArgument(colourspace.getState());
+		addArgument(colourspace.getFrame());
+	}
+
+	/**
+	 * Records the "Stage x" and "Start!" images at their current positions
+	 *
+	 * @param stage The stage to display.
+	 * @param stageX The x-coordinate of the stage image.
+	 * @param stageY The y-coordinate of the stage image.
+	 * @param startX The x-coordinate of the start image.
+	 * @param startY The y-coordinate of the start image.
+	 */
+	public void drawStartEffect(int stage, int stageX, int stageY, int startX, int startY) {
+		addCommand(START_EFFECT, 5);
+		addArgument(stage);
+		addArgument(stageX);
+		addArgument(stageY);
+		addArgument(startX);
+		addArgument(startY);
+	}
+
+	/**
+	 * Records a tip graphic
+	 *
+	 * @param tipNumber
+	 *            The tip graphic in relation to its sprite sheet position
+	 */
+	public void drawTip(int tipNumber) {
+		addCommand(TIP, 1);
+		addArgument(tipNumber);
+	}
+
+	/**
+	 * Records the health bar
+	 *
+	 * @param health
+	 *            The current health value of Player
+	 */
+	public void drawHealthBar(int health) {
+		addCommand(HEALTH_BAR, 1);
+		addArgument(health);
+	}
+
+	/**
+	 * Records the minimap, along with the colour and position of every enemy
+	 * that has an icon on it
+	 *
+	 * @param allEnemies
+	 *            All enemies currently on the level
+	 */
+	public void drawMinimap(EnemyList allEnemies) {
+		int firstMarker = markerCount;
+		for (int i = 0; i < allEnemies.size(); i++) {
+			Enemy anEnemy = allEnemies.get(i);
+			if (anEnemy == null) {
+				continue;
+			}
+			int colour = anEnemy.getColour();
+			if (colour == Enemy.NOCOLOUR && anEnemy.getName() != "Witch") {
+				continue;
+			}
+
+			if (markerCount == markerColours.length) {
+				markerColours = Arrays.copyOf(markerColours, markerCount * 2);
+				markerDistances = Arrays.copyOf(markerDistances, markerCount * 2);
+			}
+			markerColours[markerCount] = colour;
+			markerDistances[markerCount] = anEnemy.getDistanceFromPlayer();
+			markerCount++;
+		}
+
+		addCommand(MINIMAP, 2);
+		addArgument(firstMarker);
+		addArgument(markerCount - firstMarker);
+	}
+
+	/**
+	 * Records a player or enemy sprite
+	 *
+	 * @param type
+	 *            The type of entity to be drawn
+	 * @param direction
+	 *            The direction that the sprite is facing
+	 * @param column
+	 *            The column containing the desired sprite
+	 * @param row
+	 *            The row containing the desired sprite
+	 * @param previousRotation
+	 *            The rotation, or Y coord for the Player, after the previous
+	 *            update
+	 * @param rotation
+	 *            The rotation for enemies, or the current Y coord for the
+	 *            Player
+	 * @param filter
+	 *            The ARGB filter to use, if any, for the sprite.
+	 */
+	public void drawSprite(int type, int direction, int column, int row, double previousRotation, double rotation, int filter) {
+		addCommand(SPRITE, 5);
+		addArgument(type);
+		addArgument(direction);
+		addArgument(column);
+		addArgument(row);
+		addArgument(filter);
+		addValue(previousRotation);
+		addValue(rotation);
+	}
+
+	/**
+	 * Records the beams from the player's sword during their victory pose
+	 *
+	 * @param angle
+	 *            The angle of the line being drawn, with 90 being straight down.
+	 */
+	public void drawBeams(int angle) {
+		addCommand(BEAMS, 1);
+		addArgument(angle);
+	}
+
+	/**
+	 * Records that the screen should be cleared to black
+	 */
+	public void clearScreen() {
+		addCommand(CLEAR_SCREEN, 0);
+	}
+
+	/**
+	 * Appends an operation to the command list, making room for the integer
+	 * arguments that follow it
+	 */
+	private void addCommand(int command, int argumentCount) {
+		if (commandCount + argumentCount + 1 > commands.length) {
+			commands = Arrays.copyOf(commands, commands.length * 2);
+		}
+		commands[commandCount++] = command;
+	}
+
+	/**
+	 * Appends an integer argument of the operation most recently added
+	 */
+	private void addArgument(int argument) {
+		commands[commandCount++] = argument;
+	}
+
+	/**
+	 * Appends a decimal argument to the value list
+	 */
+	private void addValue(double value) {
+		if (valueCount == values.length) {
+			values = Arrays.copyOf(values, values.length * 2);
+		}
+		values[valueCount++] = value;
+	}
+
+}
@@ -3,11 +3,14 @@ package roundWorld.graphics;
 import java.awt.BasicStroke;
 import java.awt.Color;
 import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Image;
+import java.awt.Transparency;
 import java.awt.geom.AffineTransform;
-import java.awt.image.AffineTransformOp;
 import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
 import java.io.IOException;
-import java.util.List;
 
 import javax.imageio.ImageIO;
 import roundWorld.Game;
@@ -32,80 +35,298 @@ import roundWorld.stage.Stage;
  */
 public class Screen {
 	/**
-	 * Constants for keeping track of which sprite matrix to access, based on
-	 * entity type
+	 * The largest angle, in radians, that is drawn as a plain translation
+	 * instead of a rotation. At this angle no visible pixel of the stage or a
+	 * sprite moves by more than half a pixel
 	 */
-	public static final int COLOURSPACE = 0, TIP = 1, HEALTH = 2, START_EFFECT = 3,
-							PLAYER = 4, PORCUPINE = 5, HORNET = 6, 
-							SCORPION = 7, GOLEM = 8, WITCH = 9,
-							FIREBALL = 10, LIGHTNING = 11;
+	public static final double NEAR_IDENTITY_ANGLE = 0.5 / (Stage.RADIUS + Stage.BORDER_AREA);
 	/**
-	 * Constants to track the left and right versions of each sprite matrix
+	 * The number of positions around the minimap that an enemy icon can be
+	 * drawn at
 	 */
-	public static final int LEFT = 1, RIGHT = 0;
+	private static final int MINIMAP_STEPS = 512;
+	/**
+	 * The space left around the cached minimap layers for the width of the
+	 * border
+	 */
+	private static final int MINIMAP_MARGIN = 2;
+	/**
+	 * The colours of the two halves of the minimap, and of the enemy icons
+	 * grouped by enemy colour: no colour, red and blue
+	 */
+	private static final Color MINIMAP_RED_HALF = Color.getHSBColor(0f, 1f, 0.25f),
+							MINIMAP_BLUE_HALF = Color.getHSBColor(0.6f, 1f, 0.25f);
+	private static final Color[] MINIMAP_ICON_COLOURS = { Color.DARK_GRAY, Color.RED, Color.BLUE };
 
 	/**
 	 * Primary buffered image, and non-sprite images
 	 */
-	private BufferedImage image, titleImage, howToPlayImage, stageImage, stageFiveImage;
+	private BufferedImage image, titleImage, howToPlayImage;
+	/**
+	 * Accelerated image that is drawn to instead of the primary image when
+	 * enabled. Its contents can be lost at any time, so it is validated before
+	 * every frame. Null if disabled
+	 */
+	private VolatileImage volatileImage;
 	/**
-	 * The base matrix for holding all other sprite matrices. Assigned by entity
+	 * The configuration of the default screen, used to create images in its
+	 * native format. Null if there is no display
+	 */
+	private GraphicsConfiguration config;
+	/**
+	 * Holds every sprite sheet packed into a few page images, with a frame
+	 * table giving the position of each sprite. Frames are grouped by entity
 	 * type
 	 */
-	private BufferedImage[][][][] allSprites;
+	private SpriteAtlas atlas;
 	/**
-	 * Graphics 2D object extracted from the image variable. All images are
-	 * drawn to this variable
+	 * Pre-tinted copies of sprites, used when an entity flashes or fades
+	 */
+	private SpriteTintCache tintCache;
+	/**
+	 * Draws the rotated stage, using a cache of pre-rotated arcs
+	 */
+	private StageRenderer stageRenderer;
+	/**
+	 * Graphics 2D object extracted from the volatile image if there is one, and
+	 * otherwise the image variable. All images are drawn to this variable
 	 */
 	private Graphics2D g2d;
+	/**
+	 * The transform of g2d when it was created, and a reusable transform for
+	 * positioning rotated sprites
+	 */
+	private AffineTransform baseTransform, spriteTransform;
 	
 	/**
 	 * The coordinates of the center of the minimap. Used to place
 	 * each enemy icon around the edge of the minimap.
 	 */
 	private final int minimapCenterX = (Game.WINDOW_WIDTH / 2), minimapCenterY = 25;
+	/**
+	 * The minimap halves with the Player icon, and the minimap border, drawn
+	 * once so each frame only has to blit them
+	 */
+	private BufferedImage minimapBackground, minimapBorder;
+	/**
+	 * The top left corner of an enemy icon at each position around the
+	 * minimap
+	 */
+	private int[] minimapIconX, minimapIconY;
 
 	/**
 	 * Constructor instantiates the main image, and loads all images and
-	 * matrices that will be used
+	 * matrices that will be used. Images are converted to the native format of
+	 * the screen when there is one, and the accelerated volatile image is used
+	 * if the roundworld.volatile property is set
 	 */
 	public Screen() {
-		image = new BufferedImage(Game.WINDOW_WIDTH, Game.WINDOW_HEIGHT, BufferedImage.TYPE_INT_RGB);
-		titleImage = loadImage("/res/title.png");
-		howToPlayImage = loadImage("/res/howto.png");
-		stageImage = loadImage("/res/Stage.png");
-		stageFiveImage = loadImage("/res/StageFive.png");
+		if (!GraphicsEnvironment.isHeadless()) {
+			config = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice().getDefaultConfiguration();
+			if (Boolean.getBoolean("roundworld.volatile")) {
+				volatileImage = config.createCompatibleVolatileImage(Game.WINDOW_WIDTH, Game.WINDOW_HEIGHT, Transparency.OPAQUE);
+			}
+		}
 
-		allSprites = new BufferedImage[12][][][];
+		image = new BufferedImage(Game.WINDOW_WIDTH, Game.WINDOW_HEIGHT, BufferedImage.TYPE_INT_RGB);
+		titleImage = toCompatibleImage(loadImage("/res/title.png"), Transparency.OPAQUE);
+		howToPlayImage = toCompatibleImage(loadImage("/res/howto.png"), Transparency.OPAQUE);
+		stageRenderer = new StageRenderer(toCompatibleImage(loadImage("/res/Stage.png"), Transparency.OPAQUE),
+				toCompatibleImage(loadImage("/res/StageFive.png"), Transparency.OPAQUE), config,
+				Integer.getInteger("roundworld.stageStep", StageRenderer.DEFAULT_STEP),
+				Integer.getInteger("roundworld.stageCache", StageRenderer.DEFAULT_CAPACITY));
+
+		atlas = new SpriteAtlas(12);
 		
-		allSprites[0] = createSpriteMatrix(1, 6, 2, 800, 141, "/res/colourspace.png");	
-		allSprites[1] = createSpriteMatrix(1, 1, 7, 800, 480, "/res/tips.png");
-		allSprites[2] = createSpriteMatrix(1, 1, 6, 200, 50, "/res/health.png");
-		allSprites[3] = createSpriteMatrix(1, 1, 6, 183, 31, "/res/startEffect.png");
+		addSpriteSheet(Sprites.COLOURSPACE, 1, 6, 2, 800, 141, "/res/colourspace.png");	
+		addSpriteSheet(Sprites.TIP, 1, 1, 7, 800, 480, "/res/tips.png");
+		addSpriteSheet(Sprites.HEALTH, 1, 1, 6, 200, 50, "/res/health.png");
+		addSpriteSheet(Sprites.START_EFFECT, 1, 1, 6, 183, 31, "/res/startEffect.png");
 		
-		allSprites[4] = createSpriteMatrix(2, 6, 6, Player.SPRITE_WIDTH, Player.SPRITE_HEIGHT, "/res/PCSprites.png");
-		allSprites[5] = createSpriteMatrix(2, 3, 2, Porcupine.SPRITE_WIDTH, Porcupine.SPRITE_HEIGHT, "/res/Porcupine.png");
-		allSprites[6] = createSpriteMatrix(2, 3, 2, Hornet.SPRITE_WIDTH, Hornet.SPRITE_HEIGHT, "/res/Hornet.png");
-		allSprites[7] = createSpriteMatrix(2, 4, 4, Scorpion.SPRITE_WIDTH, Scorpion.SPRITE_HEIGHT, "/res/Scorpion.png");
-		allSprites[8] = createSpriteMatrix(2, 4, 10, Golem.SPRITE_WIDTH, Golem.SPRITE_HEIGHT, "/res/Golem.png");
-		allSprites[9] = createSpriteMatrix(2, 6, 4, Witch.SPRITE_WIDTH, Witch.SPRITE_HEIGHT, "/res/Witch.png");
-		allSprites[10] = createSpriteMatrix(2, 5, 1, Fireball.SPRITE_WIDTH, Fireball.SPRITE_HEIGHT, "/res/Fireball.png");
-		allSprites[11]= createSpriteMatrix(2, 4, 4, Lightning.SPRITE_WIDTH, Lightning.SPRITE_HEIGHT, "/res/Lightning.png");
-
-		g2d = image.createGraphics();
-		g2d.setColor(Color.YELLOW);
-		g2d.setStroke(new BasicStroke(2));
+		addSpriteSheet(Sprites.PLAYER, 2, 6, 6, Player.SPRITE_WIDTH, Player.SPRITE_HEIGHT, "/res/PCSprites.png");
+		addSpriteSheet(Sprites.PORCUPINE, 2, 3, 2, Porcupine.SPRITE_WIDTH, Porcupine.SPRITE_HEIGHT, "/res/Porcupine.png");
+		addSpriteSheet(Sprites.HORNET, 2, 3, 2, Hornet.SPRITE_WIDTH, Hornet.SPRITE_HEIGHT, "/res/Hornet.png");
+		addSpriteSheet(Sprites.SCORPION, 2, 4, 4, Scorpion.SPRITE_WIDTH, Scorpion.SPRITE_HEIGHT, "/res/Scorpion.png");
+		addSpriteSheet(Sprites.GOLEM, 2, 4, 10, Golem.SPRITE_WIDTH, Golem.SPRITE_HEIGHT, "/res/Golem.png");
+		addSpriteSheet(Sprites.WITCH, 2, 6, 4, Witch.SPRITE_WIDTH, Witch.SPRITE_HEIGHT, "/res/Witch.png");
+		addSpriteSheet(Sprites.FIREBALL, 2, 5, 1, Fireball.SPRITE_WIDTH, Fireball.SPRITE_HEIGHT, "/res/Fireball.png");
+		addSpriteSheet(Sprites.LIGHTNING, 2, 4, 4, Lightning.SPRITE_WIDTH, Lightning.SPRITE_HEIGHT, "/res/Lightning.png");
+		atlas.pack(config);
+
+		tintCache = new SpriteTintCache(SpriteTintCache.DEFAULT_CAPACITY);
+		spriteTransform = new AffineTransform();
+		createMinimap();
+
+		createGraphics();
 	}
 
 	/**
 	 * Returns the image to be rendered as the current frame
 	 * 
-	 * @return a BufferedImage containing all drawn graphics
+	 * @return the volatile image if it is enabled, otherwise the BufferedImage
+	 *         containing all drawn graphics
 	 */
-	public BufferedImage getImage() {
+	public Image getImage() {
+		if (volatileImage != null) {
+			return volatileImage;
+		}
 		return image;
 	}
 
+	/**
+	 * Checks whether the last frame drawn has been lost since it was drawn, in
+	 * which case it must be drawn again before being shown
+	 * 
+	 * @return true if the volatile image is enabled and its contents were lost
+	 */
+	public boolean isContentsLost() {
+		return volatileImage != null && volatileImage.contentsLost();
+	}
+
+	/**
+	 * Sets up a new graphics object for the current render target
+	 */
+	private void createGraphics() {
+		if (g2d != null) {
+			g2d.dispose();
+		}
+
+		if (volatileImage != null) {
+			g2d = volatileImage.createGraphics();
+		} else {
+			g2d = image.createGraphics();
+		}
+		g2d.setColor(Color.YELLOW);
+		g2d.setStroke(new BasicStroke(2));
+		baseTransform = g2d.getTransform();
+	}
+
+	/**
+	 * Draws a recorded frame exactly as it was at the end of its update
+	 * 
+	 * @param frame
+	 *            The snapshot to draw
+	 */
+	public void draw(FrameSnapshot frame) {
+		draw(frame, 1);
+	}
+
+	/**
+	 * Draws a recorded frame by replaying each of its operations in order. The
+	 * stage and sprites are placed between where they were after the previous
+	 * update and where they are now. The snapshot is only read, so the game
+	 * thread is free to record the next frame meanwhile
+	 * 
+	 * @param frame
+	 *            The snapshot to draw
+	 * @param alpha
+	 *            How far between the previous and current update to draw, from
+	 *            0 to 1
+	 */
+	public void draw(FrameSnapshot frame, double alpha) {
+		if (volatileImage == null) {
+			replay(frame, alpha);
+			return;
+		}
+
+		do {
+			int status = volatileImage.validate(config);
+			if (status == VolatileImage.IMAGE_INCOMPATIBLE) {
+				volatileImage.flush();
+				volatileImage = config.createCompatibleVolatileImage(Game.WINDOW_WIDTH, Game.WINDOW_HEIGHT, Transparency.OPAQUE);
+			}
+			if (status != VolatileImage.IMAGE_OK) {
+				createGraphics();
+			}
+
+			replay(frame, alpha);
+		} while (volatileImage.contentsLost());
+	}
+
+	/**
+	 * Replays each operation of a recorded frame in order onto the current
+	 * render target
+	 * 
+	 * @param frame
+	 *            The snapshot to draw
+	 * @param alpha
+	 *            How far between the previous and current update to draw, from
+	 *            0 to 1
+	 */
+	private void replay(FrameSnapshot frame, double alpha) {
+		int[] commands = frame.commands;
+		int i = 0;
+		int v = 0;
+
+		while (i < frame.commandCount) {
+			switch (commands[i++]) {
+			case FrameSnapshot.TITLE_SCREEN:
+				drawTitleScreen();
+				break;
+			case FrameSnapshot.CHEAT_NOTICE:
+				drawCheatNotice();
+				break;
+			case FrameSnapshot.HOW_TO_PLAY:
+				drawHowToPlay();
+				break;
+			case FrameSnapshot.STAGE:
+				drawStage(interpolate(frame.values[v], frame.values[v + 1], alpha), commands[i++] == 1);
+				v += 2;
+				break;
+			case FrameSnapshot.COLOURSPACE:
+				drawColourspace(commands[i], commands[i + 1]);
+				i += 2;
+				break;
+			case FrameSnapshot.START_EFFECT:
+				drawStartEffect(commands[i], commands[i + 1], commands[i + 2], commands[i + 3], commands[i + 4]);
+				i += 5;
+				break;
+			case FrameSnapshot.TIP:
+				drawTip(commands[i++]);
+				break;
+			case FrameSnapshot.HEALTH_BAR:
+				drawHealthBar(commands[i++]);
+				break;
+			case FrameSnapshot.MINIMAP:
+				drawMinimap(frame, commands[i], commands[i + 1]);
+				i += 2;
+				break;
+			case FrameSnapshot.SPRITE:
+				drawSprite(commands[i], commands[i + 1], commands[i + 2], commands[i + 3],
+						interpolate(frame.values[v], frame.values[v + 1], alpha), commands[i + 4]);
+				i += 5;
+				v += 2;
+				break;
+			case FrameSnapshot.BEAMS:
+				drawBeams(commands[i++]);
+				break;
+			case FrameSnapshot.CLEAR_SCREEN:
+				clearScreen();
+				break;
+			default:
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Blends between a previous and current value
+	 * 
+	 * @param previous
+	 *            The value after the previous update
+	 * @param current
+	 *            The value after the current update
+	 * @param alpha
+	 *            How far between the two to go, from 0 to 1
+	 * @return The blended value, or exactly the current value if alpha is 1
+	 */
+	private static double interpolate(double previous, double current, double alpha) {
+		if (alpha >= 1) {
+			return current;
+		}
+		return previous + (current - previous) * alpha;
+	}
+
 	/**
 	 * Called at the beginning of the game to display game information
 	 */
@@ -129,28 +350,25 @@ public class Screen {
 	}
 
 	/**
-	 * Draws a rotated stage graphic to the screen. Repositions the stage, so
-	 * its bottom is in the frame and sets a centered anchor point and rotates
-	 * the stage graphic
+	 * Draws a rotated stage graphic to the screen. The StageRenderer blits a
+	 * pre-rotated arc of the stage when it has one, and otherwise repositions
+	 * the stage so its bottom is in the frame and rotates it around its center
 	 * 
 	 * @param stageRotation
 	 *            the current angle that the stage will be rotated
 	 */
 	public void drawStage(double stageRotation, boolean isStageFive) {
-		AffineTransform transformer = new AffineTransform();
-
-		transformer.translate(Stage.SHIFT_INTO_FRAME_X, Stage.SHIFT_INTO_FRAME_Y);
-		transformer.rotate(stageRotation, Stage.CENTER_OF_IMAGE, Stage.CENTER_OF_IMAGE);
-
-		g2d.drawImage((isStageFive ? stageFiveImage : stageImage), transformer, null);
+		stageRenderer.draw(g2d, stageRotation, isStageFive);
 	}
 	
 	/**
-	 * Gets the current state of the colourspace, and draws the
+	 * Takes the recorded state of the colourspace, and draws the
 	 * corresponding sprite.
+	 * 
+	 * @param state The state of the colourspace.
+	 * @param frame The current sprite of a CLEARING or FORMING animation.
 	 */
-	public void drawColourspace(Colourspace colourspace) {
-		int state = colourspace.getState();
+	public void drawColourspace(int state, int frame) {
 		int column = 0;
 		int row = 0;
 		switch (state) {
@@ -160,18 +378,17 @@ public class Screen {
 				break;
 			case Colourspace.CLEARING:
 				row = 0;
-				column = colourspace.getFrame();
+				column = frame;
 				break;
 			case Colourspace.FORMING:
 				row = 1;
-				column = colourspace.getFrame();
+				column = frame;
 		}
 		
-		BufferedImage sprite = allSprites[COLOURSPACE][0][column][row];
 		int x = 0;
 		int y = 260;
 		
-		g2d.drawImage(sprite, x, y, null);
+		atlas.draw(g2d, atlas.getFrame(Sprites.COLOURSPACE, 0, column, row), x, y);
 	}
 	
 	/**
@@ -185,11 +402,8 @@ public class Screen {
 	 * @param startY The y-coordinate of the start image.
 	 */
 	public void drawStartEffect(int stage, int stageX, int stageY, int startX, int startY) {
-		BufferedImage sprite = allSprites[START_EFFECT][0][0][stage];
-		g2d.drawImage(sprite, stageX, stageY, null);
-		
-		sprite = allSprites[START_EFFECT][0][0][0];
-		g2d.drawImage(sprite, startX, startY, null);
+		atlas.draw(g2d, atlas.getFrame(Sprites.START_EFFECT, 0, 0, stage), stageX, stageY);
+		atlas.draw(g2d, atlas.getFrame(Sprites.START_EFFECT, 0, 0, 0), startX, startY);
 	}
 	
 
@@ -200,12 +414,10 @@ public class Screen {
 	 *            The tip graphic in relation to its sprite sheet position
 	 */
 	public void drawTip(int tipNumber) {
-		BufferedImage tipImage = allSprites[Screen.TIP][0][0][tipNumber - 1];
-
 		int x = 0;
 		int y = 0;
 
-		g2d.drawImage(tipImage, x, y, null);
+		atlas.draw(g2d, atlas.getFrame(Sprites.TIP, 0, 0, tipNumber - 1), x, y);
 	}
 
 	/**
@@ -215,72 +427,109 @@ public class Screen {
 	 *            The current health value of Player. Relates to sprite sheet
 	 */
 	public void drawHealthBar(int health) {
-		BufferedImage healthBar = allSprites[Screen.HEALTH][0][0][health];
+		int healthBar = atlas.getFrame(Sprites.HEALTH, 0, 0, health);
 
-		int x = (Game.WINDOW_WIDTH / 2) - (healthBar.getWidth() / 2);
-		int y = (Game.WINDOW_HEIGHT) - healthBar.getHeight();
+		int x = (Game.WINDOW_WIDTH / 2) - (atlas.getWidth(healthBar) / 2);
+		int y = (Game.WINDOW_HEIGHT) - atlas.getHeight(healthBar);
 
-		g2d.drawImage(healthBar, x, y, null);
+		atlas.draw(g2d, healthBar, x, y);
 	}
 	
 	/**
 	 * Draws the minimap in the top-center of the screen, including
-	 * dots to represent the player and enemy positions.
+	 * dots to represent the player and enemy positions. The halves, Player
+	 * icon and border are blitted from cached layers, and the enemy icons are
+	 * drawn one colour at a time
+	 * 
+	 * @param frame The snapshot holding the recorded enemy icons.
+	 * @param firstMarker The index of the first icon for this minimap.
+	 * @param markerCount The number of icons to draw.
 	 */
-	public void drawMinimap(List<Enemy> allEnemies) {
-		int x = minimapCenterX - 25;
-		int y = minimapCenterY - 25;
-		
-		g2d.setColor(Color.getHSBColor(0f, 1f, 0.25f));
-		g2d.fillArc(x, y, 50, 50, 90, 180);
-		g2d.setColor(Color.getHSBColor(0.6f, 1f, 0.25f));
-		g2d.fillArc(x, y, 50, 50, -90, 180);
-		g2d.setColor(Color.YELLOW);
-		
+	private void drawMinimap(FrameSnapshot frame, int firstMarker, int markerCount) {
+		int x = minimapCenterX - 25 - MINIMAP_MARGIN;
+		int y = minimapCenterY - 25 - MINIMAP_MARGIN;
 		
-		//Player and enemy icons
-		g2d.fillOval(minimapCenterX - 5, minimapCenterY + 15, 10, 10);
+		g2d.drawImage(minimapBackground, x, y, null);
 		
-		for (Enemy icon : allEnemies) {
-			drawMinimapEnemy(icon);
+		for (int group = 0; group < MINIMAP_ICON_COLOURS.length; group++) {
+			g2d.setColor(MINIMAP_ICON_COLOURS[group]);
+			for (int i = firstMarker; i < firstMarker + markerCount; i++) {
+				if (getMinimapGroup(frame.markerColours[i]) == group) {
+					drawMinimapEnemy(frame.markerDistances[i]);
+				}
+			}
 		}
 		
-		//Border
-		g2d.setColor(Color.BLACK);
-		g2d.drawOval(minimapCenterX - 25, 0, 50, 50);
+		g2d.drawImage(minimapBorder, x, y, null);
 		g2d.setColor(Color.YELLOW);
 	}
 	
 	/**
 	 * Called by the parent drawMinimap method.
-	 * Draws a small circle on the minimap for the given enemy,
+	 * Draws a small circle on the minimap for an enemy, in the current colour,
 	 * to match their x position on the circle (their y position
 	 * is not considered).
-	 * @param anEnemy The enemy to draw.
+	 * @param distanceFromPlayer The enemy's distance from the player.
 	 */
-	private void drawMinimapEnemy(Enemy anEnemy) {
-		int colour = anEnemy.getColour();
+	private void drawMinimapEnemy(double distanceFromPlayer) {
+		int step = (int) (Math.round(distanceFromPlayer * MINIMAP_STEPS / Stage.CIRCUMFERENCE) % MINIMAP_STEPS);
+		if (step < 0) {
+			step += MINIMAP_STEPS;
+		}
+		
+		g2d.fillOval(minimapIconX[step], minimapIconY[step], 10, 10);
+	}
+	
+	/**
+	 * Finds which colour group an enemy icon is drawn in
+	 * 
+	 * @param colour The colour of the enemy.
+	 * @return The index of the icon colour in MINIMAP_ICON_COLOURS.
+	 */
+	private static int getMinimapGroup(int colour) {
 		switch (colour) {
 		case Enemy.RED:
-			g2d.setColor(Color.RED);
-			break;
+			return 1;
 		case Enemy.BLUE:
-			g2d.setColor(Color.BLUE);
-			break;
+			return 2;
 		default:
-			if (anEnemy.getName() != "Witch") {
-				return;
-			}
-			g2d.setColor(Color.DARK_GRAY);
-			break;
+			return 0;
 		}
+	}
+	
+	/**
+	 * Draws the layers of the minimap that never change, and works out where
+	 * an enemy icon goes at each position around it
+	 */
+	private void createMinimap() {
+		int size = 50 + MINIMAP_MARGIN * 2;
 		
-		double position = anEnemy.getDistanceFromPlayer() * Stage.RADIAN_PER_PIXEL + (Math.PI / 2);
+		minimapBackground = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D graphics = minimapBackground.createGraphics();
+		graphics.setColor(MINIMAP_RED_HALF);
+		graphics.fillArc(MINIMAP_MARGIN, MINIMAP_MARGIN, 50, 50, 90, 180);
+		graphics.setColor(MINIMAP_BLUE_HALF);
+		graphics.fillArc(MINIMAP_MARGIN, MINIMAP_MARGIN, 50, 50, -90, 180);
+		graphics.setColor(Color.YELLOW);
+		graphics.fillOval(MINIMAP_MARGIN + 20, MINIMAP_MARGIN + 40, 10, 10);
+		graphics.dispose();
+		minimapBackground = toCompatibleImage(minimapBackground, Transparency.TRANSLUCENT);
 		
-		int x = (int) (minimapCenterX - 5 + (20 * Math.cos(position)));
-		int y = (int) (minimapCenterY - 5 + (20 * Math.sin(position)));
-		g2d.fillOval(x, y, 10, 10);
-		g2d.setColor(Color.YELLOW);
+		minimapBorder = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB);
+		graphics = minimapBorder.createGraphics();
+		graphics.setColor(Color.BLACK);
+		graphics.setStroke(new BasicStroke(2));
+		graphics.drawOval(MINIMAP_MARGIN, MINIMAP_MARGIN, 50, 50);
+		graphics.dispose();
+		minimapBorder = toCompatibleImage(minimapBorder, Transparency.TRANSLUCENT);
+		
+		minimapIconX = new int[MINIMAP_STEPS];
+		minimapIconY = new int[MINIMAP_STEPS];
+		for (int i = 0; i < MINIMAP_STEPS; i++) {
+			double position = i * 2 * Math.PI / MINIMAP_STEPS + (Math.PI / 2);
+			minimapIconX[i] = (int) (minimapCenterX - 5 + (20 * Math.cos(position)));
+			minimapIconY[i] = (int) (minimapCenterY - 5 + (20 * Math.sin(position)));
+		}
 	}
 
 	/**
@@ -300,81 +549,74 @@ public class Screen {
 	 *            The rotation for enemies, but this is also used to pass the
 	 *            current Y coord for the Player class
 	 * @param filter
-	 * 			  The ARGB filter to use, if any, for the sprite.
+	 * 			  The ARGB filter to use, if any, for the sprite. Tinted sprites
+	 * 			  are taken from the tint cache so the originals are untouched
 	 */
 	public void drawSprite(int type, int direction, int column, int row, double rotation, int filter) {
-		BufferedImage sprite = allSprites[type][direction][column - 1][row - 1];
-
-		if (type == PLAYER) {
-			int[] oldrgb = null;
-			if (filter != 0) {
-				oldrgb = sprite.getRGB(0, 0, Player.SPRITE_WIDTH, Player.SPRITE_HEIGHT, null, 0, Player.SPRITE_WIDTH);
-				int[] rgb = oldrgb.clone();
-				
-				for (int i = 0; i < rgb.length; i++) {
-					if (rgb[i] > 0x01000000 || rgb[i] < 0) {
-						rgb[i] = rgb[i] & 0x00ffffff;
-						rgb[i] += filter * 0x02000000;
-					}
-				}
-			
-			sprite.setRGB(0, 0, sprite.getWidth(), sprite.getHeight(), rgb, 0, sprite.getWidth());
-			}
-			
+		int sprite = atlas.getFrame(type, direction, column - 1, row - 1);
+		BufferedImage tintedSprite = null;
+
+		if (filter != 0) {
+			tintedSprite = tintCache.getTintedSprite(sprite, type, filter, atlas);
+		}
+
+		if (type == Sprites.PLAYER) {
 			int x = (Game.WINDOW_WIDTH / 2) - (Player.SPRITE_WIDTH / 2);
 			int y = (Game.WINDOW_HEIGHT + Stage.HEALTH_BAR_OFFSET) - Player.SPRITE_HEIGHT;
 			double playerJumpAdjustment = rotation;
 			int adjustedY = y + (int) playerJumpAdjustment;
-			g2d.drawImage(sprite, x, adjustedY, null);
-			if (filter != 0) {
-				sprite.setRGB(0, 0, sprite.getWidth(), sprite.getHeight(), oldrgb, 0, sprite.getWidth());
-			}
+			drawFrame(sprite, tintedSprite, x, adjustedY);
 			return;
 		}
-		
 
+		int width = atlas.getWidth(sprite);
+		int height = atlas.getHeight(sprite);
 
-		int width = sprite.getWidth();
-		int height = sprite.getHeight();
-		
-		int[] oldrgb = null;
-		if (filter != 0) {
-			oldrgb = sprite.getRGB(0, 0, width, height, null, 0, width);
-			int[] rgb = oldrgb.clone();
-			int filterStartPoint = 0;
-			if (type == WITCH) {
-				if ((filter & 0x00ffffff) == 0x00ffff00) {
-					filterStartPoint = rgb.length / 4 * 3;
-				}
-			}
-			
-			for (int i = filterStartPoint; i < rgb.length; i++) {
-				if (rgb[i] > 0x01000000 || rgb[i] < 0) {
-					rgb[i] = filter;
-				}
-			}
-		
-		sprite.setRGB(0, 0, sprite.getWidth(), sprite.getHeight(), rgb, 0, sprite.getWidth());
+		if (isNearIdentity(rotation)) {
+			drawFrame(sprite, tintedSprite, Stage.RELATIVE_CENTER_X - (width / 2), Stage.RELATIVE_CENTER_Y - height + Stage.RADIUS);
+			return;
 		}
-		
-		AffineTransform rotateSprite = new AffineTransform();
-		rotateSprite.translate(Stage.RELATIVE_CENTER_X - (width / 2), Stage.RELATIVE_CENTER_Y - height);
-		rotateSprite.rotate(rotation, (width / 2), height);
-		AffineTransform repositionSprite = new AffineTransform();
 
-		repositionSprite.translate(0, Stage.RADIUS);
-		rotateSprite.concatenate(repositionSprite);
-		
+		spriteTransform.setToTranslation(Stage.RELATIVE_CENTER_X - (width / 2), Stage.RELATIVE_CENTER_Y - height);
+		spriteTransform.rotate(rotation, (width / 2), height);
+		spriteTransform.translate(0, Stage.RADIUS);
 
-		
-		
-		g2d.drawImage(sprite, rotateSprite, null);
-		
-		if (filter != 0) {
-			sprite.setRGB(0, 0, sprite.getWidth(), sprite.getHeight(), oldrgb, 0, sprite.getWidth());
-		}
+		g2d.transform(spriteTransform);
+		drawFrame(sprite, tintedSprite, 0, 0);
+		g2d.setTransform(baseTransform);
+	}
 
-		
+	/**
+	 * Draws a sprite from the atlas, or its tinted copy if there is one
+	 * 
+	 * @param sprite
+	 *            The frame of the sprite in the atlas
+	 * @param tintedSprite
+	 *            The tinted copy of the sprite, or null to draw the original
+	 * @param x
+	 *            The x coordinate to draw at
+	 * @param y
+	 *            The y coordinate to draw at
+	 */
+	private void drawFrame(int sprite, BufferedImage tintedSprite, int x, int y) {
+		if (tintedSprite != null) {
+			g2d.drawImage(tintedSprite, x, y, null);
+		} else {
+			atlas.draw(g2d, sprite, x, y);
+		}
+	}
+	
+	/**
+	 * Checks whether a rotation is close enough to a whole turn that drawing it
+	 * as a plain translation looks the same. Translated blits avoid the general
+	 * transform path, which is slow for angles close to zero
+	 * 
+	 * @param angle
+	 *            The rotation in radians
+	 * @return true if the rotation can be drawn as a translation
+	 */
+	static boolean isNearIdentity(double angle) {
+		return Math.abs(Math.IEEEremainder(angle, 2 * Math.PI)) < NEAR_IDENTITY_ANGLE;
 	}
 	
 	/**
@@ -401,9 +643,11 @@ public class Screen {
 
 	/**
 	 * Passed instructions for a sprite sheet to be loaded, and instructions for
-	 * how to break it apart. Individual sprites are then held in a matrix which
-	 * is returned
+	 * how to break it apart. The individual sprites are added to the atlas,
+	 * which packs them onto its pages once every sheet has been added
 	 * 
+	 * @param type
+	 *            The type of entity the sprite sheet belongs to
 	 * @param directions
 	 *            The number of directional orientations required
 	 * @param columns
@@ -416,53 +660,9 @@ public class Screen {
 	 *            The height of each individual sprite
 	 * @param spriteSheetPath
 	 *            The path of the sprite sheet to be loaded
-	 * @return The completed matrix containing all of the individual sprites
 	 */
-	private BufferedImage[][][] createSpriteMatrix(int directions, int columns, int rows, int width, int height, String spriteSheetPath) {
-		BufferedImage spriteSheet = loadImage(spriteSheetPath);
-
-		BufferedImage[][][] spriteMatrix = new BufferedImage[directions][columns][rows];
-
-		for (int i = 0; i < directions; i++) {
-			for (int j = 0; j < columns; j++) {
-				for (int h = 0; h < rows; h++) {
-					spriteMatrix[i][j][h] = createSprite(i, j, h, width, height, spriteSheet);
-				}
-			}
-		}
-
-		return spriteMatrix;
-	}
-
-	/**
-	 * Retrieves and returns a single sprite from a given sprite sheet.
-	 * Transformation is applied if a right facing version is required
-	 * 
-	 * @param direction
-	 *            The direction that the sprite will face
-	 * @param column
-	 *            The column to retrieve the sprite from
-	 * @param row
-	 *            The row to retrieve the sprite from
-	 * @param width
-	 *            The width of the desired sprite
-	 * @param height
-	 *            The height of the desired sprite
-	 * @param spriteSheet
-	 *            The sprite sheet to retrieve from
-	 * @return The buffered image for the requested sprite
-	 */
-	private BufferedImage createSprite(int direction, int column, int row, int width, int height, BufferedImage spriteSheet) {
-		BufferedImage requestedSprite = spriteSheet.getSubimage((column * width), (row * height), width, height);
-
-		if (direction == LEFT) {
-			AffineTransform changeSpriteAnchor = AffineTransform.getScaleInstance(-1, 1);
-			changeSpriteAnchor.translate(-requestedSprite.getWidth(), 0);
-			AffineTransformOp flipSprite = new AffineTransformOp(changeSpriteAnchor, AffineTransformOp.TYPE_NEAREST_NEIGHBOR);
-			requestedSprite = flipSprite.filter(requestedSprite, null);
-		}
-
-		return requestedSprite;
+	private void addSpriteSheet(int type, int directions, int columns, int rows, int width, int height, String spriteSheetPath) {
+		atlas.addSheet(type, directions, columns, rows, width, height, loadImage(spriteSheetPath));
 	}
 
 	/**
@@ -484,4 +684,29 @@ public class Screen {
 		return loadedImage;
 	}
 
+	/**
+	 * Copies an image into the native format of the screen, so drawing it
+	 * stays on the accelerated pipeline instead of converting every pixel on
+	 * each draw. Returns the image unchanged if there is no screen or it is
+	 * already in the native format
+	 * 
+	 * @param source
+	 *            The image to convert
+	 * @param transparency
+	 *            OPAQUE for images without transparent pixels, otherwise
+	 *            TRANSLUCENT
+	 * @return An image in the native format with the same contents
+	 */
+	private BufferedImage toCompatibleImage(BufferedImage source, int transparency) {
+		if (config == null || source == null || source.getColorModel().equals(config.getColorModel(transparency))) {
+			return source;
+		}
+
+		BufferedImage compatibleImage = config.createCompatibleImage(source.getWidth(), source.getHeight(), transparency);
+		Graphics2D graphics = compatibleImage.createGraphics();
+		graphics.drawImage(source, 0, 0, null);
+		graphics.dispose();
+		return compatibleImage;
+	}
+
 }
\ No newline at end of file
@@ -0,0 +1,94 @@
+package roundWorld.graphics;
+
+/**
+ * A triple buffer for passing frame snapshots from the game thread to the
+ * render thread. The game thread records into the back snapshot and publishes
+ * it, while the render thread draws the front snapshot. The third snapshot sits
+ * between them, so neither thread ever has to wait for the other to finish
+ * with a snapshot
+ *
+ * @author Andrew Black
+ *
+ */
+public class SnapshotBuffer {
+	/**
+	 * The snapshot being recorded by the game thread
+	 */
+	private FrameSnapshot back;
+	/**
+	 * The most recently published snapshot, waiting to be drawn
+	 */
+	private FrameSnapshot ready;
+	/**
+	 * The snapshot being drawn by the render thread
+	 */
+	private FrameSnapshot front;
+	/**
+	 * True when the ready snapshot has been published but not yet taken
+	 */
+	private boolean isReadyFresh;
+
+	/**
+	 * Constructor creates the three snapshots
+	 */
+	public SnapshotBuffer() {
+		back = new FrameSnapshot();
+		ready = new FrameSnapshot();
+		front = new FrameSnapshot();
+		isReadyFresh = false;
+	}
+
+	/**
+	 * Returns the snapshot that the game thread should record into. It belongs
+	 * to the game thread until publish is called
+	 *
+	 * @return The back snapshot
+	 */
+	public synchronized FrameSnapshot getBackSnapshot() {
+		return back;
+	}
+
+	/**
+	 * Makes the back snapshot available to the render thread. If the previous
+	 * snapshot was never drawn it is dropped and reused for recording
+	 */
+	public synchronized void publish() {
+		FrameSnapshot published = back;
+		back = ready;
+		ready = published;
+		isReadyFresh = true;
+		notifyAll();
+	}
+
+	/**
+	 * Waits for a snapshot that has not been drawn yet and hands it to the
+	 * render thread. It belongs to the render thread until the next call
+	 *
+	 * @param timeoutMillis
+	 *            The longest time to wait for a new snapshot
+	 * @return The newest snapshot, or null if none was published in time
+	 */
+	public synchronized FrameSnapshot takeLatest(long timeoutMillis) {
+		long deadline = System.currentTimeMillis() + timeoutMillis;
+		while (!isReadyFresh) {
+			long remaining = deadline - System.currentTimeMillis();
+			if (remaining <= 0) {
+				return null;
+			}
+
+			try {
+				wait(remaining);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return null;
+			}
+		}
+
+		FrameSnapshot taken = ready;
+		ready = front;
+		front = taken;
+		isReadyFresh = false;
+		return front;
+	}
+
+}
@@ -0,0 +1,322 @@
+package roundWorld.graphics;
+
+import java.awt.AlphaComposite;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Holds every sprite of the game packed into a few large page images. Each
+ * sprite sheet is cut into frames, with a mirrored copy of each frame for left
+ * facing sprites, and the frames are placed onto shelves across the pages.
+ * A compact frame table records where each frame sits, so a sprite is drawn
+ * by blitting a sub-rectangle of its page rather than from an image of its
+ * own
+ *
+ * @author Andrew Black
+ *
+ */
+public class SpriteAtlas {
+	/**
+	 * The largest width and height of a page
+	 */
+	public static final int MAX_PAGE_SIZE = 2048;
+	/**
+	 * The number of entries held for each frame in the frame table: the page,
+	 * x, y, width and height
+	 */
+	private static final int FRAME_ENTRIES = 5;
+
+	/**
+	 * The page images holding the packed frames
+	 */
+	private BufferedImage[] pages;
+	/**
+	 * The page, x, y, width and height of every frame, one after another
+	 */
+	private int[] frames;
+	/**
+	 * The number of frames added so far
+	 */
+	private int frameCount;
+	/**
+	 * For each sprite type, the index of its first frame and the number of
+	 * directions, columns and rows of its sprite sheet
+	 */
+	private int[] firstFrames, directionCounts, columnCounts, rowCounts;
+	/**
+	 * The sprite sheets waiting to be packed, and the sprite type each belongs
+	 * to. Both are emptied once the pages are built
+	 */
+	private List<BufferedImage> sheets;
+	private List<Integer> sheetTypes;
+
+	/**
+	 * Constructor creates an empty atlas
+	 *
+	 * @param typeCount
+	 *            The number of sprite types that will be added
+	 */
+	public SpriteAtlas(int typeCount) {
+		frames = new int[64 * FRAME_ENTRIES];
+		firstFrames = new int[typeCount];
+		directionCounts = new int[typeCount];
+		columnCounts = new int[typeCount];
+		rowCounts = new int[typeCount];
+		sheets = new ArrayList<>();
+		sheetTypes = new ArrayList<>();
+	}
+
+	/**
+	 * Adds the frames of a sprite sheet to the atlas. The frames are given
+	 * their places on the pages when pack is called
+	 *
+	 * @param type
+	 *            The type of entity the sprite sheet belongs to
+	 * @param directions
+	 *            The number of directional orientations required
+	 * @param columns
+	 *            The number of columns to be retrieved
+	 * @param rows
+	 *            The number of rows to be retrieved
+	 * @param width
+	 *            The width of each individual sprite
+	 * @param height
+	 *            The height of each individual sprite
+	 * @param sheet
+	 *            The sprite sheet to cut the frames from
+	 */
+	public void addSheet(int type, int directions, int columns, int rows, int width, int height, BufferedImage sheet) {
+		firstFrames[type] = frameCount;
+		directionCounts[type] = directions;
+		columnCounts[type] = columns;
+		rowCounts[type] = rows;
+
+		int newFrameCount = frameCount + directions * columns * rows;
+		if (newFrameCount * FRAME_ENTRIES > frames.length) {
+			frames = Arrays.copyOf(frames, Math.max(frames.length * 2, newFrameCount * FRAME_ENTRIES));
+		}
+		for (int i = frameCount; i < newFrameCount; i++) {
+			frames[i * FRAME_ENTRIES + 3] = width;
+			frames[i * FRAME_ENTRIES + 4] = height;
+		}
+		frameCount = newFrameCount;
+
+		sheets.add(sheet);
+		sheetTypes.add(type);
+	}
+
+	/**
+	 * Places every frame on a page and draws the pages. Frames are placed
+	 * tallest first, each on the first shelf with room for it, and a new shelf
+	 * or page is opened when none has room. The sprite sheets are released
+	 * afterwards
+	 *
+	 * @param config
+	 *            The configuration of the screen, used to create the pages in
+	 *            its native format. Null if there is no display
+	 */
+	public void pack(GraphicsConfiguration config) {
+		Integer[] order = new Integer[frameCount];
+		for (int i = 0; i < frameCount; i++) {
+			order[i] = i;
+		}
+		Arrays.sort(order, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer a, Integer b) {
+				return getHeight(b) - getHeight(a);
+			}
+		});
+
+		List<int[]> shelves = new ArrayList<>();
+		List<int[]> pageSizes = new ArrayList<>();
+		pageSizes.add(new int[2]);
+
+		for (int frame : order) {
+			int width = getWidth(frame);
+			int height = getHeight(frame);
+
+			int[] shelf = null;
+			for (int[] candidate : shelves) {
+				if (candidate[2] >= height && candidate[3] + width <= MAX_PAGE_SIZE) {
+					shelf = candidate;
+					break;
+				}
+			}
+
+			if (shelf == null) {
+				int[] pageSize = pageSizes.get(pageSizes.size() - 1);
+				if (pageSize[1] + height > MAX_PAGE_SIZE) {
+					pageSize = new int[2];
+					pageSizes.add(pageSize);
+				}
+				shelf = new int[] { pageSizes.size() - 1, pageSize[1], height, 0 };
+				shelves.add(shelf);
+				pageSize[1] += height;
+			}
+
+			frames[frame * FRAME_ENTRIES] = shelf[0];
+			frames[frame * FRAME_ENTRIES + 1] = shelf[3];
+			frames[frame * FRAME_ENTRIES + 2] = shelf[1];
+			shelf[3] += width;
+
+			int[] pageSize = pageSizes.get(shelf[0]);
+			pageSize[0] = Math.max(pageSize[0], shelf[3]);
+		}
+
+		pages = new BufferedImage[pageSizes.size()];
+		Graphics2D[] pageGraphics = new Graphics2D[pages.length];
+		for (int i = 0; i < pages.length; i++) {
+			int width = Math.max(1, pageSizes.get(i)[0]);
+			int height = Math.max(1, pageSizes.get(i)[1]);
+			if (config != null) {
+				pages[i] = config.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+			} else {
+				pages[i] = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+			}
+			pageGraphics[i] = pages[i].createGraphics();
+			pageGraphics[i].setComposite(AlphaComposite.Src);
+		}
+
+		for (int i = 0; i < sheets.size(); i++) {
+			drawSheet(pageGraphics, sheetTypes.get(i), sheets.get(i));
+		}
+
+		for (Graphics2D graphics : pageGraphics) {
+			graphics.dispose();
+		}
+		sheets.clear();
+		sheetTypes.clear();
+	}
+
+	/**
+	 * Copies each frame of a sprite sheet to its place on the pages. Left
+	 * facing frames are mirrored as they are copied
+	 */
+	private void drawSheet(Graphics2D[] pageGraphics, int type, BufferedImage sheet) {
+		int framesPerDirection = columnCounts[type] * rowCounts[type];
+		int lastFrame = firstFrames[type] + directionCounts[type] * framesPerDirection;
+
+		for (int frame = firstFrames[type]; frame < lastFrame; frame++) {
+			int index = frame - firstFrames[type];
+			int direction = index / framesPerDirection;
+			int column = (index % framesPerDirection) / rowCounts[type];
+			int row = index % rowCounts[type];
+
+			int width = getWidth(frame);
+			int height = getHeight(frame);
+			int sourceX = column * width;
+			int sourceY = row * height;
+			int x = getX(frame);
+			int y = getY(frame);
+
+			if (direction == Sprites.LEFT) {
+				pageGraphics[getPage(frame)].drawImage(sheet, x + width, y, x, y + height,
+						sourceX, sourceY, sourceX + width, sourceY + height, null);
+			} else {
+				pageGraphics[getPage(frame)].drawImage(sheet, x, y, x + width, y + height,
+						sourceX, sourceY, sourceX + width, sourceY + height, null);
+			}
+		}
+	}
+
+	/**
+	 * Finds the frame holding a sprite
+	 *
+	 * @param type
+	 *            The type of entity the sprite belongs to
+	 * @param direction
+	 *            The direction that the sprite is facing
+	 * @param column
+	 *            The column of the sprite sheet, counted from zero
+	 * @param row
+	 *            The row of the sprite sheet, counted from zero
+	 * @return The index of the frame in the frame table
+	 */
+	public int getFrame(int type, int direction, int column, int row) {
+		return firstFrames[type] + (direction * columnCounts[type] + column) * rowCounts[type] + row;
+	}
+
+	/**
+	 * Draws a frame with its top left corner at the given position
+	 *
+	 * @param g2d
+	 *            The graphics to draw the frame into
+	 * @param frame
+	 *            The frame to draw
+	 * @param x
+	 *            The x coordinate to draw at
+	 * @param y
+	 *            The y coordinate to draw at
+	 */
+	public void draw(Graphics2D g2d, int frame, int x, int y) {
+		int entry = frame * FRAME_ENTRIES;
+		int sourceX = frames[entry + 1];
+		int sourceY = frames[entry + 2];
+		int width = frames[entry + 3];
+		int height = frames[entry + 4];
+
+		g2d.drawImage(pages[frames[entry]], x, y, x + width, y + height,
+				sourceX, sourceY, sourceX + width, sourceY + height, null);
+	}
+
+	/**
+	 * Copies the pixels of a frame
+	 *
+	 * @param frame
+	 *            The frame to copy
+	 * @return The ARGB value of each pixel, row by row
+	 */
+	public int[] getRGB(int frame) {
+		int width = getWidth(frame);
+		return pages[getPage(frame)].getRGB(getX(frame), getY(frame), width, getHeight(frame), null, 0, width);
+	}
+
+	/**
+	 * @return The number of pages the frames were packed onto
+	 */
+	public int getPageCount() {
+		return pages.length;
+	}
+
+	/**
+	 * @return The page holding the frame
+	 */
+	private int getPage(int frame) {
+		return frames[frame * FRAME_ENTRIES];
+	}
+
+	/**
+	 * @return The x coordinate of the frame on its page
+	 */
+	private int getX(int frame) {
+		return frames[frame * FRAME_ENTRIES + 1];
+	}
+
+	/**
+	 * @return The y coordinate of the frame on its page
+	 */
+	private int getY(int frame) {
+		return frames[frame * FRAME_ENTRIES + 2];
+	}
+
+	/**
+	 * @return The width of the frame
+	 */
+	public int getWidth(int frame) {
+		return frames[frame * FRAME_ENTRIES + 3];
+	}
+
+	/**
+	 * @return The height of the frame
+	 */
+	public int getHeight(int frame) {
+		return frames[frame * FRAME_ENTRIES + 4];
+	}
+
+}
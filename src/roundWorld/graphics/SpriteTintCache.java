@@ -0,0 +1,207 @@
+package roundWorld.graphics;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * Holds pre-tinted copies of sprites for the flash and fade effects. Tinted
+ * variants are built the first time they are requested and kept in a least
+ * recently used cache, so the source sprites are never modified and a flashing
+ * sprite costs a single draw
+ *
+ * The cache is an open addressing table on the packed sprite and filter, held
+ * in parallel arrays, so finding a cached sprite allocates nothing. Each entry
+ * is stamped when it is used, and when the cache is full the entry with the
+ * oldest stamp is evicted
+ *
+ * @author Andrew Black
+ *
+ */
+public class SpriteTintCache {
+	/**
+	 * The number of tinted sprites held before the least recently used one is
+	 * evicted
+	 */
+	public static final int DEFAULT_CAPACITY = 256;
+
+	/**
+	 * For each slot of the table, the key of the filter and the frame of the
+	 * sprite in the atlas, the tinted sprite, which is null for an empty slot,
+	 * and the stamp of when it was last used
+	 */
+	private long[] keys;
+	private BufferedImage[] tintedSprites;
+	private long[] lastUsed;
+	/**
+	 * The number of slots less one. The number of slots is a power of two at
+	 * least twice the capacity, so probes stay short
+	 */
+	private int mask;
+	/**
+	 * The maximum number of tinted sprites held, and the number held
+	 */
+	private int capacity, size;
+	/**
+	 * Counts every request, giving the stamp of the entry it uses
+	 */
+	private long clock;
+
+	/**
+	 * Constructor creates an empty cache with the given capacity
+	 *
+	 * @param inCapacity
+	 *            The maximum number of tinted sprites to hold at once
+	 */
+	public SpriteTintCache(int inCapacity) {
+		capacity = Math.max(1, inCapacity);
+		int slots = Integer.highestOneBit(capacity * 2 - 1) << 1;
+		keys = new long[slots];
+		tintedSprites = new BufferedImage[slots];
+		lastUsed = new long[slots];
+		mask = slots - 1;
+		size = 0;
+		clock = 0;
+	}
+
+	/**
+	 * Returns the tinted version of a sprite, building and caching it if it
+	 * has not been requested recently
+	 *
+	 * @param sprite
+	 *            The frame of the untinted sprite in the atlas
+	 * @param type
+	 *            The type of entity the sprite belongs to
+	 * @param filter
+	 *            The filter to apply. For the Player this is an alpha value,
+	 *            for enemies it is the ARGB colour to flash
+	 * @param atlas
+	 *            The atlas holding the sprite
+	 * @return A separate image holding the tinted sprite
+	 */
+	public BufferedImage getTintedSprite(int sprite, int type, int filter, SpriteAtlas atlas) {
+		long key = ((long) filter << 32) | (sprite & 0xffffffffL);
+		clock++;
+
+		int slot = findSlot(key);
+		if (tintedSprites[slot] != null) {
+			lastUsed[slot] = clock;
+			return tintedSprites[slot];
+		}
+
+		BufferedImage tintedSprite = createTintedSprite(type, filter, atlas, sprite);
+		if (size == capacity) {
+			remove(findLeastRecentlyUsed());
+			slot = findSlot(key);
+		}
+		keys[slot] = key;
+		tintedSprites[slot] = tintedSprite;
+		lastUsed[slot] = clock;
+		size++;
+		return tintedSprite;
+	}
+
+	/**
+	 * Probes the table for a key
+	 *
+	 * @return The slot holding the key, or the empty slot it would be added to
+	 */
+	private int findSlot(long key) {
+		int slot = homeSlot(key);
+		while (tintedSprites[slot] != null && keys[slot] != key) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	/**
+	 * @return The slot a key is probed from, found by mixing all of its bits
+	 */
+	private int homeSlot(long key) {
+		return (int) ((key * 0x9e3779b97f4a7c15L) >>> 32) & mask;
+	}
+
+	/**
+	 * @return The occupied slot with the oldest stamp
+	 */
+	private int findLeastRecentlyUsed() {
+		int eldest = -1;
+		for (int slot = 0; slot <= mask; slot++) {
+			if (tintedSprites[slot] != null && (eldest == -1 || lastUsed[slot] < lastUsed[eldest])) {
+				eldest = slot;
+			}
+		}
+		return eldest;
+	}
+
+	/**
+	 * Empties a slot, then shifts back any entries after it that could no
+	 * longer be found by probing past the empty slot
+	 *
+	 * @param slot
+	 *            The occupied slot to empty
+	 */
+	private void remove(int slot) {
+		int hole = slot;
+		int next = (hole + 1) & mask;
+		while (tintedSprites[next] != null) {
+			int home = homeSlot(keys[next]);
+			if (((next - home) & mask) >= ((next - hole) & mask)) {
+				keys[hole] = keys[next];
+				tintedSprites[hole] = tintedSprites[next];
+				lastUsed[hole] = lastUsed[next];
+				hole = next;
+			}
+			next = (next + 1) & mask;
+		}
+		tintedSprites[hole] = null;
+		size--;
+	}
+
+	/**
+	 * Copies a sprite and applies the filter to every visible pixel. The
+	 * Player's filter replaces the alpha of each pixel so that it fades out,
+	 * while an enemy's filter replaces the whole pixel with a flat colour. The
+	 * Witch's yellow flash only covers the bottom quarter of her sprite
+	 *
+	 * @param type
+	 *            The type of entity the sprite belongs to
+	 * @param filter
+	 *            The filter to apply
+	 * @param atlas
+	 *            The atlas holding the sprite
+	 * @param sprite
+	 *            The frame of the sprite to copy
+	 * @return A new image containing the tinted sprite
+	 */
+	private BufferedImage createTintedSprite(int type, int filter, SpriteAtlas atlas, int sprite) {
+		int width = atlas.getWidth(sprite);
+		int height = atlas.getHeight(sprite);
+		int[] rgb = atlas.getRGB(sprite);
+
+		if (type == Sprites.PLAYER) {
+			for (int i = 0; i < rgb.length; i++) {
+				if (rgb[i] > 0x01000000 || rgb[i] < 0) {
+					rgb[i] = rgb[i] & 0x00ffffff;
+					rgb[i] += filter * 0x02000000;
+				}
+			}
+		} else {
+			int filterStartPoint = 0;
+			if (type == Sprites.WITCH) {
+				if ((filter & 0x00ffffff) == 0x00ffff00) {
+					filterStartPoint = rgb.length / 4 * 3;
+				}
+			}
+
+			for (int i = filterStartPoint; i < rgb.length; i++) {
+				if (rgb[i] > 0x01000000 || rgb[i] < 0) {
+					rgb[i] = filter;
+				}
+			}
+		}
+
+		BufferedImage tintedSprite = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+		tintedSprite.setRGB(0, 0, width, height, rgb, 0, width);
+		return tintedSprite;
+	}
+
+}
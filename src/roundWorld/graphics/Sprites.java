@@ -0,0 +1,31 @@
+package roundWorld.graphics;
+
+/**
+ * Constants naming each sprite sheet and its left and right versions. Entities
+ * record sprites in the frame snapshot with these, and the Screen looks the
+ * sheets up by them, so the game itself does not depend on the Screen
+ * 
+ * @author Andrew Black
+ * 
+ */
+public class Sprites {
+	/**
+	 * Constants for keeping track of which sprite matrix to access, based on
+	 * entity type
+	 */
+	public static final int COLOURSPACE = 0, TIP = 1, HEALTH = 2, START_EFFECT = 3,
+							PLAYER = 4, PORCUPINE = 5, HORNET = 6, 
+							SCORPION = 7, GOLEM = 8, WITCH = 9,
+							FIREBALL = 10, LIGHTNING = 11;
+	/**
+	 * Constants to track the left and right versions of each sprite matrix
+	 */
+	public static final int LEFT = 1, RIGHT = 0;
+
+	/**
+	 * The sprites are only used through their constants
+	 */
+	private Sprites() {
+	}
+
+}
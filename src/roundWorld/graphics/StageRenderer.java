@@ -0,0 +1,304 @@
+package roundWorld.graphics;
+
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Transparency;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import roundWorld.Game;
+import roundWorld.stage.Stage;
+
+/**
+ * Draws the rotating stage. Rotating the whole stage image is the most
+ * expensive draw in a frame, so the visible arc of the ring is pre-rotated at
+ * fixed angular steps and kept in a bounded cache. On machines with processors
+ * to spare, cached arcs are built on a background thread around the current
+ * rotation. Otherwise a builder thread would only compete with the game, so
+ * an arc is built on the game thread once the stage stays on the same step
+ * for a second frame. A frame that misses the cache falls back to rotating
+ * the full image exactly
+ *
+ * @author Andrew Black
+ *
+ */
+public class StageRenderer {
+	/**
+	 * The default distance between two cached rotations, in units around the
+	 * ring. Two units moves the edge of the ring by about a pixel
+	 */
+	public static final int DEFAULT_STEP = 2;
+	/**
+	 * How many steps either side of the current rotation are built ahead of
+	 * time
+	 */
+	private static final int PREFETCH_STEPS = 8;
+	/**
+	 * The default number of pre-rotated arcs held at once, enough for every
+	 * arc that is built ahead of time. Each arc is the size of the window, so
+	 * at 800x480 the default holds about 26 MB
+	 */
+	public static final int DEFAULT_CAPACITY = 2 * PREFETCH_STEPS + 1;
+	/**
+	 * The fewest processors on which arcs are built on a background thread
+	 */
+	private static final int MIN_BUILDER_PROCESSORS = 3;
+
+	/**
+	 * The full stage images, which are never modified
+	 */
+	private BufferedImage stageImage, stageFiveImage;
+	/**
+	 * The angle in radians between two cached rotations
+	 */
+	private double angleStep;
+	/**
+	 * The configuration of the screen, used to build arcs in its native
+	 * format. Null if there is no display
+	 */
+	private GraphicsConfiguration config;
+	/**
+	 * Pre-rotated arcs keyed by their step index and stage image. Kept in
+	 * access order so the least recently used arc is evicted first. All access
+	 * is synchronized on the map, as arcs are added by the builder threads
+	 */
+	private Map<Long, BufferedImage> rotatedStages;
+	/**
+	 * Keys of the arcs that have been queued but not built yet
+	 */
+	private Set<Long> pendingStages;
+	/**
+	 * The step index most recently drawn, used by the builders to skip arcs
+	 * that the player has already moved away from
+	 */
+	private volatile long currentIndex;
+	/**
+	 * Whether the stage most recently drawn was the level five stage
+	 */
+	private volatile boolean currentIsStageFive;
+	/**
+	 * The number of arcs held at once, zero if the cache is disabled
+	 */
+	private int capacity;
+	/**
+	 * The background thread that builds the pre-rotated arcs. Null if the
+	 * cache is disabled, or if there are too few processors for it to run
+	 * alongside the game, in which case arcs are built on demand
+	 */
+	private ExecutorService builder;
+
+	/**
+	 * Constructor sets up the cache, and its builder thread if there are
+	 * processors to spare
+	 *
+	 * @param inStageImage
+	 *            The stage image for the first four levels
+	 * @param inStageFiveImage
+	 *            The stage image for level five
+	 * @param inConfig
+	 *            The configuration of the screen, or null if there is none
+	 * @param step
+	 *            The distance between two cached rotations, in units around
+	 *            the ring
+	 * @param inCapacity
+	 *            The number of arcs to hold. Zero disables the cache so every
+	 *            frame is rotated exactly
+	 */
+	public StageRenderer(BufferedImage inStageImage, BufferedImage inStageFiveImage, GraphicsConfiguration inConfig, int step, int inCapacity) {
+		stageImage = inStageImage;
+		stageFiveImage = inStageFiveImage;
+		config = inConfig;
+		angleStep = Math.max(1, step) * Stage.RADIAN_PER_PIXEL;
+		currentIndex = Long.MIN_VALUE;
+		capacity = Math.max(0, inCapacity);
+
+		rotatedStages = new LinkedHashMap<Long, BufferedImage>(capacity + 1, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Long, BufferedImage> eldest) {
+				return size() > capacity;
+			}
+		};
+		pendingStages = new HashSet<>();
+
+		if (capacity > 0 && Runtime.getRuntime().availableProcessors() >= MIN_BUILDER_PROCESSORS) {
+			builder = Executors.newSingleThreadExecutor(new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable task) {
+					Thread thread = new Thread(task, "Stage builder");
+					thread.setDaemon(true);
+					thread.setPriority(Thread.MIN_PRIORITY);
+					return thread;
+				}
+			});
+		}
+	}
+
+	/**
+	 * Draws the stage at the given rotation. A rotation that is close enough to
+	 * zero to be indistinguishable from it is drawn as a plain translated blit.
+	 * Otherwise a cached arc at the nearest step is blitted if there is one, or
+	 * the full image is rotated exactly and the surrounding arcs are queued to
+	 * be built. Without a builder thread, a missing arc is built here instead
+	 * when the stage is on the same step as the last frame, since it is then
+	 * likely to be drawn again
+	 *
+	 * @param g2d
+	 *            The graphics to draw the stage into
+	 * @param stageRotation
+	 *            The current angle that the stage is rotated
+	 * @param isStageFive
+	 *            Whether the level five stage image should be used
+	 */
+	public void draw(Graphics2D g2d, double stageRotation, boolean isStageFive) {
+		if (Screen.isNearIdentity(stageRotation)) {
+			g2d.drawImage((isStageFive ? stageFiveImage : stageImage), Stage.SHIFT_INTO_FRAME_X, Stage.SHIFT_INTO_FRAME_Y, null);
+			return;
+		}
+
+		if (capacity == 0) {
+			drawExact(g2d, stageRotation, isStageFive);
+			return;
+		}
+
+		long index = Math.round(stageRotation / angleStep);
+		Long key = getKey(index, isStageFive);
+		BufferedImage rotatedStage;
+		synchronized (rotatedStages) {
+			rotatedStage = rotatedStages.get(key);
+		}
+
+		if (rotatedStage == null && builder == null && index == currentIndex && isStageFive == currentIsStageFive) {
+			rotatedStage = buildArc(index, isStageFive);
+			synchronized (rotatedStages) {
+				rotatedStages.put(key, rotatedStage);
+			}
+		}
+
+		if (rotatedStage != null) {
+			g2d.drawImage(rotatedStage, 0, 0, null);
+		} else {
+			drawExact(g2d, stageRotation, isStageFive);
+		}
+
+		if (index != currentIndex || isStageFive != currentIsStageFive) {
+			currentIndex = index;
+			currentIsStageFive = isStageFive;
+			if (builder != null) {
+				prefetch(index, isStageFive);
+			}
+		}
+	}
+
+	/**
+	 * Draws the full stage image through an exact rotation. Repositions the
+	 * stage, so its bottom is in the frame and rotates it around its center
+	 *
+	 * @param g2d
+	 *            The graphics to draw the stage into
+	 * @param stageRotation
+	 *            The angle to rotate the stage by
+	 * @param isStageFive
+	 *            Whether the level five stage image should be used
+	 */
+	private void drawExact(Graphics2D g2d, double stageRotation, boolean isStageFive) {
+		AffineTransform transformer = new AffineTransform();
+
+		transformer.translate(Stage.SHIFT_INTO_FRAME_X, Stage.SHIFT_INTO_FRAME_Y);
+		transformer.rotate(stageRotation, Stage.CENTER_OF_IMAGE, Stage.CENTER_OF_IMAGE);
+
+		g2d.drawImage((isStageFive ? stageFiveImage : stageImage), transformer, null);
+	}
+
+	/**
+	 * Queues every arc within reach of the given step that is neither cached
+	 * nor already queued, nearest first
+	 *
+	 * @param index
+	 *            The step index of the current rotation
+	 * @param isStageFive
+	 *            Whether the level five stage image is being drawn
+	 */
+	private void prefetch(long index, boolean isStageFive) {
+		for (int i = 0; i <= PREFETCH_STEPS * 2; i++) {
+			long nextIndex = index + ((i % 2 == 0) ? i / 2 : -(i + 1) / 2);
+			Long key = getKey(nextIndex, isStageFive);
+
+			synchronized (rotatedStages) {
+				if (rotatedStages.containsKey(key) || !pendingStages.add(key)) {
+					continue;
+				}
+			}
+			builder.execute(new ArcBuilder(nextIndex, isStageFive));
+		}
+	}
+
+	/**
+	 * Builds one window-sized arc of the stage at the rotation of a given step,
+	 * in the native format of the screen if there is one
+	 *
+	 * @param index
+	 *            The step index to build
+	 * @param isStageFive
+	 *            Whether the level five stage image should be used
+	 * @return The pre-rotated arc
+	 */
+	private BufferedImage buildArc(long index, boolean isStageFive) {
+		BufferedImage rotatedStage;
+		if (config != null) {
+			rotatedStage = config.createCompatibleImage(Game.WINDOW_WIDTH, Game.WINDOW_HEIGHT, Transparency.OPAQUE);
+		} else {
+			rotatedStage = new BufferedImage(Game.WINDOW_WIDTH, Game.WINDOW_HEIGHT, BufferedImage.TYPE_INT_RGB);
+		}
+		Graphics2D graphics = rotatedStage.createGraphics();
+		drawExact(graphics, index * angleStep, isStageFive);
+		graphics.dispose();
+		return rotatedStage;
+	}
+
+	/**
+	 * Combines a step index and stage image into a single cache key
+	 */
+	private static Long getKey(long index, boolean isStageFive) {
+		return (index << 1) | (isStageFive ? 1 : 0);
+	}
+
+	/**
+	 * A queued request to build one arc. The request is dropped if the stage
+	 * has rotated out of prefetch range before it runs
+	 */
+	private class ArcBuilder implements Runnable {
+		private long index;
+		private boolean isStageFive;
+
+		public ArcBuilder(long inIndex, boolean inIsStageFive) {
+			index = inIndex;
+			isStageFive = inIsStageFive;
+		}
+
+		@Override
+		public void run() {
+			Long key = getKey(index, isStageFive);
+			BufferedImage rotatedStage = null;
+			if (isStageFive == currentIsStageFive && Math.abs(index - currentIndex) <= PREFETCH_STEPS) {
+				rotatedStage = buildArc(index, isStageFive);
+			}
+
+			synchronized (rotatedStages) {
+				pendingStages.remove(key);
+				if (rotatedStage != null) {
+					rotatedStages.put(key, rotatedStage);
+				}
+			}
+		}
+	}
+
+}
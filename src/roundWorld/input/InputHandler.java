@@ -1,19 +1,24 @@
 package roundWorld.input;
 
-import java.awt.event.KeyEvent;
-import java.awt.event.KeyListener;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 import roundWorld.entity.player.Player;
 import roundWorld.stage.Level;
-import roundWorld.Game;
 
 /**
- * Listens for keyboard input and passes it to the appropriate classes
+ * Receives key presses and releases and passes them to the appropriate
+ * classes. Key codes are the constants in Keys, and are passed in by
+ * KeyboardInput when the game has a window, or by an InputPlayer when a
+ * recording is replayed. Keys can be pressed from any thread, and are held
+ * until the Level dispatches them at the start of its next update, so every
+ * key event belongs to an update and can be recorded with it
  * 
  * @author Andrew Black
  * 
  */
-public class InputHandler implements KeyListener {
+public class InputHandler {
 	/**
 	 * An array that tracks keys which have been pressed, and disables them
 	 * until it has been released to prevent key repeating
@@ -28,20 +33,35 @@ public class InputHandler implements KeyListener {
 	 * notifications
 	 */
 	Level level;
+	/**
+	 * Key events waiting for the next update, and the array the previous
+	 * events were dispatched from, which are swapped at each dispatch. Each
+	 * event is the key code shifted left once, with the lowest bit set for a
+	 * press
+	 */
+	private int[] events, dispatchEvents;
+	/**
+	 * The number of key events waiting
+	 */
+	private int eventCount;
+	/**
+	 * Writes every dispatched key event to a recording, or null if the game
+	 * is not being recorded
+	 */
+	private InputRecorder recorder;
 
 	/**
-	 * Constructor attaches the InputHandler class to the game instance and
-	 * grants it focus so that the JFrame can listen for key events
-	 * 
-	 * @param gameInstance
-	 *            the game instance containing the JFrame
+	 * Constructor creates an InputHandler with every key enabled. Keys are
+	 * passed to it through pressKey and releaseKey
 	 */
-	public InputHandler(Game gameInstance) {
-		keyDisabled = new boolean[1000];
+	public InputHandler() {
+		keyDisabled = new boolean[Keys.COUNT];
 		player = null;
 		level = null;
-		gameInstance.addKeyListener(this);
-		gameInstance.setFocusable(true);
+		events = new int[16];
+		dispatchEvents = new int[16];
+		eventCount = 0;
+		recorder = null;
 	}
 
 	/**
@@ -65,18 +85,147 @@ public class InputHandler implements KeyListener {
 	}
 
 	/**
-	 * Handles all key presses and alerts the Level class. Event code is passed
-	 * the Player class only if that key has not been disabled. Keys are then
-	 * set to disabled to prevent repeating
+	 * Starts writing every dispatched key event to a recording
+	 * 
+	 * @param inRecorder
+	 *            the recorder, or null to stop recording
 	 */
-	@Override
-	public void keyPressed(KeyEvent e) {
-		
+	public void setRecorder(InputRecorder inRecorder) {
+		recorder = inRecorder;
+	}
 
-		int keyCode = e.getKeyCode();
-		
-		
+	/**
+	 * Presses a key. The press is held until the next update
+	 * 
+	 * @param keyCode
+	 *            The Keys code of the key
+	 */
+	public synchronized void pressKey(int keyCode) {
+		addEvent((keyCode << 1) | 1);
+	}
+
+	/**
+	 * Releases a key. The release is held until the next update
+	 * 
+	 * @param keyCode
+	 *            The Keys code of the key
+	 */
+	public synchronized void releaseKey(int keyCode) {
+		addEvent(keyCode << 1);
+	}
+
+	/**
+	 * Called by the Level at the start of each update. Applies every key
+	 * event held since the last update in the order they arrived, and writes
+	 * them to the recording if there is one
+	 * 
+	 * @param tick
+	 *            The number of the update the events are applied in
+	 */
+	public void dispatch(long tick) {
+		int count;
+		synchronized (this) {
+			int[] swap = dispatchEvents;
+			dispatchEvents = events;
+			events = swap;
+			count = eventCount;
+			eventCount = 0;
+		}
+
+		for (int i = 0; i < count; i++) {
+			int keyCode = dispatchEvents[i] >>> 1;
+			boolean isPressed = (dispatchEvents[i] & 1) != 0;
+			record(tick, keyCode, isPressed);
+
+			if (isPressed) {
+				applyPress(keyCode);
+			} else {
+				applyRelease(keyCode);
+			}
+		}
+
+		if (count > 0 && recorder != null) {
+			try {
+				recorder.flush();
+			} catch (IOException e) {
+				e.printStackTrace();
+				recorder = null;
+			}
+		}
+	}
+
+	/**
+	 * Writes the keys that are held down into a level snapshot, since a held
+	 * key ignores further presses until it is released. Events waiting for
+	 * the next update are input rather than state, and are not written
+	 * 
+	 * @param out
+	 *            The buffer to write to
+	 */
+	public void writeState(ByteBuffer out) {
+		int countPosition = out.position();
+		out.putShort((short) 0);
+		short held = 0;
+		for (int keyCode = 0; keyCode < keyDisabled.length; keyCode++) {
+			if (keyDisabled[keyCode]) {
+				out.putShort((short) keyCode);
+				held++;
+			}
+		}
+		out.putShort(countPosition, held);
+	}
 
+	/**
+	 * Reads back the held keys written by writeState. Every other key is
+	 * enabled
+	 * 
+	 * @param in
+	 *            The buffer to read from
+	 */
+	public void readState(ByteBuffer in) {
+		Arrays.fill(keyDisabled, false);
+		int held = in.getShort();
+		for (int i = 0; i < held; i++) {
+			keyDisabled[in.getShort()] = true;
+		}
+	}
+
+	/**
+	 * Adds an event to the ones waiting for the next update
+	 */
+	private void addEvent(int event) {
+		if (eventCount == events.length) {
+			events = Arrays.copyOf(events, events.length * 2);
+		}
+		events[eventCount++] = event;
+	}
+
+	/**
+	 * Writes a key event to the recording if there is one. Recording stops
+	 * if the recording cannot be written to
+	 */
+	private void record(long tick, int keyCode, boolean isPressed) {
+		if (recorder == null) {
+			return;
+		}
+
+		try {
+			recorder.record(tick, keyCode, isPressed);
+		} catch (IOException e) {
+			e.printStackTrace();
+			recorder = null;
+		}
+	}
+
+	/**
+	 * Presses a key. Alerts the Level class, and passes the key code to the
+	 * Player class only if that key has not been disabled. Keys are then set
+	 * to disabled to prevent repeating
+	 * 
+	 * @param keyCode
+	 *            The Keys code of the key
+	 */
+	private void applyPress(int keyCode) {
 		if (keyDisabled[keyCode]) {
 			return;
 		}
@@ -89,23 +238,16 @@ public class InputHandler implements KeyListener {
 	}
 
 	/**
-	 * Handles all key release events. Key code is retrieved, the key is
-	 * re-enabled, and then passed to the Player class
+	 * Releases a key. The key is re-enabled, and then passed to the Player
+	 * class
+	 * 
+	 * @param keyCode
+	 *            The Keys code of the key
 	 */
-	@Override
-	public void keyReleased(KeyEvent e) {
-		int keyCode = e.getKeyCode();
-
+	private void applyRelease(int keyCode) {
 		keyDisabled[keyCode] = false;
 
 		player.keyReleased(keyCode);
 	}
 
-	/**
-	 * Method not used
-	 */
-	@Override
-	public void keyTyped(KeyEvent e) {
-	}
-
 }
\ No newline at end of file
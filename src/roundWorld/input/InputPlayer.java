@@ -0,0 +1,175 @@
+package roundWorld.input;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads a recording written by an InputRecorder and passes its key events to
+ * an InputHandler in the same updates they were recorded in. A Level created
+ * with the seed of the recording then plays out exactly as the recorded game
+ * did, up to the last update of the session once every event has been played
+ * 
+ * @author Andrew Black
+ * 
+ */
+public class InputPlayer {
+	/**
+	 * The stream the recording is read from
+	 */
+	private DataInputStream in;
+	/**
+	 * The seed of the recorded Level
+	 */
+	private long seed;
+	/**
+	 * The update and packed key event of the next event, read ahead of time
+	 */
+	private long nextTick;
+	private int nextEvent;
+	/**
+	 * Whether there is an event left to play
+	 */
+	private boolean hasNext;
+	/**
+	 * The last update of the recorded session, or -1 until every event has
+	 * been played
+	 */
+	private long lastTick;
+
+	/**
+	 * Constructor reads the start of the recording and its first event
+	 * 
+	 * @param inStream
+	 *            The stream to read the recording from
+	 * @throws IOException
+	 *             If the stream cannot be read or is not a recording
+	 */
+	public InputPlayer(InputStream inStream) throws IOException {
+		in = new DataInputStream(new BufferedInputStream(inStream));
+		if (in.readInt() != InputRecorder.MAGIC) {
+			throw new IOException("Not an input recording");
+		}
+		seed = in.readLong();
+		nextTick = 0;
+		lastTick = -1;
+		readNext();
+	}
+
+	/**
+	 * Passes every event recorded for an update to the input handler. Should
+	 * be called before each update with the number of that update
+	 * 
+	 * @param tick
+	 *            The update about to be run
+	 * @param input
+	 *            The handler to pass the events to
+	 * @throws IOException
+	 *             If the stream cannot be read
+	 */
+	public void feed(long tick, InputHandler input) throws IOException {
+		while (hasNext && nextTick <= tick) {
+			if ((nextEvent & 1) != 0) {
+				input.pressKey(nextEvent >>> 1);
+			} else {
+				input.releaseKey(nextEvent >>> 1);
+			}
+			readNext();
+		}
+	}
+
+	/**
+	 * @return The seed of the recorded Level
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * @return true once every event has been played
+	 */
+	public boolean isFinished() {
+		return !hasNext;
+	}
+
+	/**
+	 * @return The update of the next event to be played, or the last update
+	 *         of the session once every event has been played
+	 */
+	public long getNextTick() {
+		return nextTick;
+	}
+
+	/**
+	 * Returns the last update of the recorded session, which is read from
+	 * the record that ends the recording. A recording that was never closed
+	 * has no such record, and ends with the update of its last event
+	 * 
+	 * @return The last update of the session, or -1 until every event has
+	 *         been played
+	 */
+	public long getLastTick() {
+		return lastTick;
+	}
+
+	/**
+	 * Closes the stream
+	 * 
+	 * @throws IOException
+	 *             If the stream cannot be closed
+	 */
+	public void close() throws IOException {
+		in.close();
+	}
+
+	/**
+	 * Reads the next event, or marks the recording finished at the record
+	 * that ends it or at the end of the stream
+	 */
+	private void readNext() throws IOException {
+		int first = in.read();
+		if (first < 0) {
+			finish();
+			return;
+		}
+
+		nextTick += readNumber(first);
+		nextEvent = (int) readNumber(in.read());
+		if (nextEvent == InputRecorder.END) {
+			finish();
+			return;
+		}
+		hasNext = true;
+	}
+
+	/**
+	 * Marks the recording finished, with the update reached as its last
+	 */
+	private void finish() {
+		hasNext = false;
+		lastTick = nextTick;
+	}
+
+	/**
+	 * Reads a number written seven bits at a time, given its first byte
+	 */
+	private long readNumber(int first) throws IOException {
+		long number = 0;
+		int shift = 0;
+		int next = first;
+		while (true) {
+			if (next < 0) {
+				throw new EOFException("Input recording ends part way through an event");
+			}
+			number |= (long) (next & 0x7f) << shift;
+			if ((next & 0x80) == 0) {
+				return number;
+			}
+			shift += 7;
+			next = in.read();
+		}
+	}
+
+}
@@ -0,0 +1,116 @@
+package roundWorld.input;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes the key events of a game to a compact binary recording, so that the
+ * game can be replayed exactly by an InputPlayer. The recording starts with
+ * MAGIC and the seed of the Level, followed by one record for each event: the
+ * number of updates since the previous event, then the key code shifted left
+ * once with the lowest bit set for a press. Both are written as variable
+ * length numbers of seven bits a byte, so most events take two bytes. When the
+ * recorder is closed, a final record holding END in place of a key event marks
+ * the last update of the session, so that idle updates after the last event
+ * are replayed too
+ * 
+ * @author Andrew Black
+ * 
+ */
+public class InputRecorder {
+	/**
+	 * The first four bytes of every recording, "RWI1"
+	 */
+	public static final int MAGIC = 0x52574931;
+	/**
+	 * The event of the record that ends a recording, which is beyond the
+	 * event of every key
+	 */
+	public static final int END = Keys.COUNT << 1;
+
+	/**
+	 * The stream the recording is written to
+	 */
+	private DataOutputStream out;
+	/**
+	 * The update of the last event written
+	 */
+	private long lastTick;
+
+	/**
+	 * Constructor writes the start of the recording
+	 * 
+	 * @param inOut
+	 *            The stream to write the recording to
+	 * @param seed
+	 *            The seed of the Level being recorded
+	 * @throws IOException
+	 *             If the stream cannot be written to
+	 */
+	public InputRecorder(OutputStream inOut, long seed) throws IOException {
+		out = new DataOutputStream(new BufferedOutputStream(inOut));
+		out.writeInt(MAGIC);
+		out.writeLong(seed);
+		lastTick = 0;
+	}
+
+	/**
+	 * Writes one key event
+	 * 
+	 * @param tick
+	 *            The update the event was applied in, never before the last
+	 *            event written
+	 * @param keyCode
+	 *            The Keys code of the key
+	 * @param isPressed
+	 *            true for a press and false for a release
+	 * @throws IOException
+	 *             If the stream cannot be written to
+	 */
+	public void record(long tick, int keyCode, boolean isPressed) throws IOException {
+		writeNumber(tick - lastTick);
+		writeNumber((keyCode << 1) | (isPressed ? 1 : 0));
+		lastTick = tick;
+	}
+
+	/**
+	 * Writes any buffered events to the stream
+	 * 
+	 * @throws IOException
+	 *             If the stream cannot be written to
+	 */
+	public void flush() throws IOException {
+		out.flush();
+	}
+
+	/**
+	 * Writes the record that ends the recording, then closes the stream
+	 * 
+	 * @param tick
+	 *            The last update of the session, never before the last event
+	 *            written
+	 * @throws IOException
+	 *             If the stream cannot be written to
+	 */
+	public void close(long tick) throws IOException {
+		writeNumber(tick - lastTick);
+		writeNumber(END);
+		lastTick = tick;
+		out.close();
+	}
+
+	/**
+	 * Writes a number that is not negative, seven bits at a time starting
+	 * with the lowest. The top bit of each byte is set if more bytes follow
+	 */
+	private void writeNumber(long number) throws IOException {
+		while ((number & ~0x7fL) != 0) {
+			out.write((int) (number & 0x7f) | 0x80);
+			number >>>= 7;
+		}
+		out.write((int) number);
+	}
+
+}
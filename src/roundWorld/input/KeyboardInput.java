@@ -0,0 +1,66 @@
+package roundWorld.input;
+
+import java.awt.event.KeyEvent;
+import java.awt.event.KeyListener;
+
+import roundWorld.Game;
+
+/**
+ * Listens for keyboard input on the game window and passes the key codes to
+ * an InputHandler. This is the only input class that uses AWT, so the game
+ * can be run without a window by using the InputHandler directly
+ * 
+ * @author Andrew Black
+ * 
+ */
+public class KeyboardInput implements KeyListener {
+	/**
+	 * The handler that key codes are passed to
+	 */
+	private InputHandler input;
+
+	/**
+	 * Constructor attaches the listener to the game instance and grants it
+	 * focus so that the JFrame can listen for key events
+	 * 
+	 * @param gameInstance
+	 *            the game instance containing the JFrame
+	 * @param inInput
+	 *            the handler that key codes are passed to
+	 */
+	public KeyboardInput(Game gameInstance, InputHandler inInput) {
+		input = inInput;
+		gameInstance.addKeyListener(this);
+		gameInstance.setFocusable(true);
+	}
+
+	/**
+	 * Handles all key press events by passing the key code on. Keys outside
+	 * the tracked range are ignored
+	 */
+	@Override
+	public void keyPressed(KeyEvent e) {
+		if (e.getKeyCode() < Keys.COUNT) {
+			input.pressKey(e.getKeyCode());
+		}
+	}
+
+	/**
+	 * Handles all key release events by passing the key code on. Keys
+	 * outside the tracked range are ignored
+	 */
+	@Override
+	public void keyReleased(KeyEvent e) {
+		if (e.getKeyCode() < Keys.COUNT) {
+			input.releaseKey(e.getKeyCode());
+		}
+	}
+
+	/**
+	 * Method not used
+	 */
+	@Override
+	public void keyTyped(KeyEvent e) {
+	}
+
+}
@@ -0,0 +1,31 @@
+package roundWorld.input;
+
+/**
+ * The key codes the game responds to. The values match the AWT virtual key
+ * codes, so key events from a window can be passed on unchanged, but the game
+ * itself never has to load any AWT classes to read them
+ * 
+ * @author Andrew Black
+ * 
+ */
+public class Keys {
+	/**
+	 * The arrow keys, used for movement and blocking
+	 */
+	public static final int LEFT = 37, UP = 38, RIGHT = 39;
+	/**
+	 * The letter keys, used for actions and the title screen
+	 */
+	public static final int C = 67, I = 73, X = 88, Z = 90;
+	/**
+	 * One more than the largest key code that is tracked
+	 */
+	public static final int COUNT = 1000;
+
+	/**
+	 * The keys are only used through their constants
+	 */
+	private Keys() {
+	}
+
+}
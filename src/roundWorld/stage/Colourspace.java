@@ -1,5 +1,7 @@
 package roundWorld.stage;
 
+import java.nio.ByteBuffer;
+
 import roundWorld.entity.Entity.Direction;
 import roundWorld.entity.enemy.Enemy;
 
@@ -157,4 +159,25 @@ public class Colourspace {
 		}
 		framesToNextSprite = 6;
 	}
+
+	/**
+	 * Writes the state and animation of the colourspace into a level
+	 * snapshot.
+	 * @param out The buffer to write to.
+	 */
+	public void writeState(ByteBuffer out) {
+		out.putInt(state);
+		out.putInt(currentSprite);
+		out.putInt(framesToNextSprite);
+	}
+
+	/**
+	 * Reads back the variables written by writeState.
+	 * @param in The buffer to read from.
+	 */
+	public void readState(ByteBuffer in) {
+		state = in.getInt();
+		currentSprite = in.getInt();
+		framesToNextSprite = in.getInt();
+	}
 }
@@ -0,0 +1,143 @@
+package roundWorld.stage;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import roundWorld.entity.enemy.Enemy;
+import roundWorld.entity.enemy.EnemyList;
+
+/**
+ * Runs the update of every enemy, either on the game thread or split across a
+ * ForkJoinPool. An enemy's update only reads and writes the enemy itself and
+ * the player's movement, and enemies only affect one another through the
+ * collision pass that Level runs afterwards on the game thread. Each enemy also
+ * draws from its own generator split from the Level's, so the result is the
+ * same whichever thread updates an enemy and in whatever order. Small levels
+ * are always updated on the game thread, where handing out the work would
+ * cost more than it saves. Every updater shares one pool, so running many
+ * Levels in one JVM does not start more threads
+ *
+ * @author Andrew Black
+ *
+ */
+public class EnemyUpdater {
+	/**
+	 * The default smallest number of enemies that is updated in parallel
+	 */
+	public static final int DEFAULT_THRESHOLD = 256;
+	/**
+	 * The largest number of enemies updated by a single task
+	 */
+	private static final int BATCH_SIZE = 64;
+
+	/**
+	 * The pool shared by every parallel updater, created when the first one
+	 * is. Its threads are daemons, so it never needs to be shut down
+	 */
+	private static ForkJoinPool sharedPool;
+
+	/**
+	 * The pool the enemies are updated on, or null if they are always updated
+	 * on the game thread
+	 */
+	private ForkJoinPool pool;
+	/**
+	 * The smallest number of enemies that is updated in parallel
+	 */
+	private int threshold;
+
+	/**
+	 * Constructor uses the shared pool if parallel updates are wanted
+	 *
+	 * @param isParallel
+	 *            Whether large numbers of enemies should be updated in
+	 *            parallel
+	 * @param inThreshold
+	 *            The smallest number of enemies that is updated in parallel
+	 */
+	public EnemyUpdater(boolean isParallel, int inThreshold) {
+		if (isParallel && Runtime.getRuntime().availableProcessors() > 1) {
+			pool = getSharedPool();
+		}
+		threshold = Math.max(inThreshold, BATCH_SIZE);
+	}
+
+	/**
+	 * @return The pool shared by every parallel updater, created on first use
+	 */
+	private static synchronized ForkJoinPool getSharedPool() {
+		if (sharedPool == null) {
+			sharedPool = new ForkJoinPool();
+		}
+		return sharedPool;
+	}
+
+	/**
+	 * Updates every enemy in the list. Removed slots are skipped. Returns once
+	 * all of the updates have finished
+	 *
+	 * @param enemies
+	 *            The enemies to update
+	 * @param playerLocationDelta
+	 *            The ring angle the player has moved since the last update
+	 */
+	public void update(EnemyList enemies, int playerLocationDelta) {
+		if (pool == null || enemies.count() < threshold) {
+			updateRange(enemies, 0, enemies.size(), playerLocationDelta);
+			return;
+		}
+
+		pool.invoke(new UpdateTask(enemies, 0, enemies.size(), playerLocationDelta));
+	}
+
+	/**
+	 * @return true if large numbers of enemies are updated in parallel
+	 */
+	public boolean isParallel() {
+		return pool != null;
+	}
+
+	/**
+	 * Updates the enemies in the slots from start up to but not including end
+	 */
+	private static void updateRange(EnemyList enemies, int start, int end, int playerLocationDelta) {
+		for (int i = start; i < end; i++) {
+			Enemy anEnemy = enemies.get(i);
+			if (anEnemy != null) {
+				anEnemy.update(playerLocationDelta);
+			}
+		}
+	}
+
+	/**
+	 * Updates a range of slots, splitting it in half until each part is no
+	 * larger than a batch
+	 */
+	private static class UpdateTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final EnemyList enemies;
+		private final int start, end;
+		private final int playerLocationDelta;
+
+		UpdateTask(EnemyList inEnemies, int inStart, int inEnd, int inPlayerLocationDelta) {
+			enemies = inEnemies;
+			start = inStart;
+			end = inEnd;
+			playerLocationDelta = inPlayerLocationDelta;
+		}
+
+		@Override
+		protected void compute() {
+			if (end - start <= BATCH_SIZE) {
+				updateRange(enemies, start, end, playerLocationDelta);
+				return;
+			}
+
+			int middle = (start + end) >>> 1;
+			invokeAll(new UpdateTask(enemies, start, middle, playerLocationDelta),
+					new UpdateTask(enemies, middle, end, playerLocationDelta));
+		}
+	}
+
+}
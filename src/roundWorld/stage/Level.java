@@ -1,13 +1,15 @@
 package roundWorld.stage;
 
-import java.awt.Rectangle;
-import java.awt.event.KeyEvent;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.ByteBuffer;
+
 import roundWorld.input.InputHandler;
+import roundWorld.input.Keys;
+import roundWorld.entity.Entity;
 import roundWorld.entity.Entity.Action;
 import roundWorld.entity.Entity.Direction;
 import roundWorld.entity.enemy.Enemy;
+import roundWorld.entity.enemy.EnemyList;
+import roundWorld.entity.enemy.EnemyPool;
 import roundWorld.entity.enemy.Fireball;
 import roundWorld.entity.enemy.Golem;
 import roundWorld.entity.enemy.Hornet;
@@ -16,7 +18,8 @@ import roundWorld.entity.enemy.Porcupine;
 import roundWorld.entity.enemy.Scorpion;
 import roundWorld.entity.enemy.Witch;
 import roundWorld.entity.player.Player;
-import roundWorld.graphics.Screen;
+import roundWorld.graphics.FrameSnapshot;
+import roundWorld.graphics.Sprites;
 
 /**
  * The Level class creates and manages all Entities, tips, titles, stages and
@@ -45,21 +48,22 @@ public class Level {
 	};
 
 	/**
-	 * All enemies on screen at a time are contained in this list. Once it is
-	 * empty the level is over
+	 * Every phase in order, for reading the phase back from a snapshot
 	 */
-	private static List<Enemy> allEnemies;
+	private static final Phase[] PHASES = Phase.values();
 
 	/**
-	 * Spells the Witch can cast. They are used by entityToAdd to determine
-	 * what spell, if any, to add to the allEnemies list.
+	 * All enemies on screen at a time are contained in this list. Once it is
+	 * empty the level is over
 	 */
-	private static final int NONE = 0, FIREBALL = 1, LIGHTNING = 2;
+	private EnemyList allEnemies;
+
 	/**
-	 * An entity to be added to the field in the next update.
-	 * Used by the Witch enemy for casting spells.
+	 * Entities to be added to the field in the next update, such as the
+	 * Witch's spells, and the handler that adds them
 	 */
-	private static int entityToAdd;
+	private SpawnQueue spawns;
+	private SpawnQueue.SpawnHandler spawnHandler;
 	
 	/**
 	 * References the InputHandler object that is passed from the Game Instance.
@@ -71,7 +75,7 @@ public class Level {
 	 * desynchronize the game. The delta is used by enemies and the stage to
 	 * control their movement
 	 */
-	private double lastPlayerLocation, playerLocationDelta;
+	private int lastPlayerLocation, playerLocationDelta;
 	/**
 	 * Holds the current instance of the game stage to be rendered in background
 	 */
@@ -120,15 +124,75 @@ public class Level {
 	 */
 	private boolean invincibilityCheat;
 	
+	/**
+	 * The broad phase for collisions between enemies, and the narrow phase run
+	 * on each pair of enemies it finds. The sweep numbers enemies by their
+	 * slot in allEnemies
+	 */
+	private SweepAndPrune sweep;
+	private SweepAndPrune.PairHandler enemyCollisions;
+	/**
+	 * The number of enemy pairs found overlapping in the last update
+	 */
+	private int collisionCount;
+	/**
+	 * The seed the Level was created with, and the generator every enemy's
+	 * source of random numbers is split from. Together with the input, the
+	 * seed decides everything that happens in a game
+	 */
+	private long seed;
+	private SplitRandom random;
+	/**
+	 * The number of updates run since the Level was created
+	 */
+	private long tick;
+	
+	/**
+	 * Runs the enemy updates, in parallel for large numbers of enemies if the
+	 * roundworld.parallel property is set. The smallest number updated in
+	 * parallel is set by the roundworld.parallelThreshold property
+	 */
+	private EnemyUpdater updater;
+	
+	/**
+	 * Removed spells, kept so that the Witch's next spells can reuse them
+	 */
+	private EnemyPool<Fireball> fireballs;
+	private EnemyPool<Lightning> lightnings;
+	
+	/**
+	 * The enemies on the level when a snapshot is restored, held while the
+	 * snapshot's enemies are read so that any of the same type in the same
+	 * slot can be reused
+	 */
+	private Enemy[] restoredEnemies;
+	
+	/**
+	 * Instantiates the Level with the seed set by the roundworld.seed system
+	 * property, or a seed from the clock if it is not set
+	 * 
+	 * @param inInput
+	 *            Object from the Game instance which is held in class variable
+	 */
+	public Level(InputHandler inInput) {
+		this(inInput, Long.getLong("roundworld.seed", System.nanoTime()));
+	}
+
 	/**
 	 * Instantiates the Stage and Player Objects, and begins the phase with the
 	 * title screen.
 	 * 
 	 * @param inInput
 	 *            Object from the Game instance which is held in class variable
+	 * @param inSeed
+	 *            The seed for all of the Level's random numbers
 	 */
-	public Level(InputHandler inInput) {
-		allEnemies = new ArrayList<>();
+	public Level(InputHandler inInput, long inSeed) {
+		seed = inSeed;
+		random = new SplitRandom(inSeed);
+		allEnemies = new EnemyList();
+		spawns = new SpawnQueue();
+		spawnHandler = new LevelSpawnHandler();
 		input = inInput;
 		timer = -1;
 		resetLevel();
@@ -139,6 +203,24 @@ public class Level {
 		colourspace = new Colourspace();
 		isStageFive = false;
 		
+		sweep = new SweepAndPrune();
+		enemyCollisions = new EnemyPairHandler();
+		updater = new EnemyUpdater(Boolean.getBoolean("roundworld.parallel"),
+				Integer.getInteger("roundworld.parallelThreshold", EnemyUpdater.DEFAULT_THRESHOLD));
+		
+		fireballs = new EnemyPool<Fireball>(EnemyPool.DEFAULT_CAPACITY) {
+			@Override
+			protected Fireball create(Direction direction, Action inAction, int position, double playerPosition, int inColour, SplitRandom inRandom) {
+				return new Fireball(direction, inAction, position, playerPosition, inColour, inRandom);
+			}
+		};
+		lightnings = new EnemyPool<Lightning>(EnemyPool.DEFAULT_CAPACITY) {
+			@Override
+			protected Lightning create(Direction direction, Action inAction, int position, double playerPosition, int inColour, SplitRandom inRandom) {
+				return new Lightning(direction, inAction, position, playerPosition, inColour, inRandom);
+			}
+		};
+		restoredEnemies = new Enemy[64];
 	}
 
 	/**
@@ -151,15 +233,21 @@ public class Level {
 		stage = new Stage();
 		player = new Player(Direction.RIGHT, Action.IDLE, 0, invincibilityCheat);
 		input.setPlayer(player);
-		allEnemies = new ArrayList<>();
+		allEnemies.clear();
+		spawns.clear();
 		
 	}
 
 	/**
-	 * Allows the game logic to be updated if the phase is currently on a
-	 * playable level. Update is held in a separate method
+	 * Applies the key events held since the last update, then allows the game
+	 * logic to be updated if the phase is currently on a playable level.
+	 * Update is held in a separate method
 	 */
 	public void update() {
+		tick++;
+		input.dispatch(tick);
+		storePreviousPositions();
+
 		if (timer == 0) {
 			nextPhase();
 			timer--;
@@ -192,49 +280,86 @@ public class Level {
 		default:
 			break;
 		}
+
+		advanceAnimations();
+
+		if (timer != -1) {
+			timer--;
+		}
 	}
 
 	/**
-	 * Renders the screen based on the current phase. This switch logic allows
-	 * different items to be drawn for the different phases
-	 * 
-	 * @param screen
-	 *            The Screen object, to be passed to items that require
-	 *            rendering
+	 * Advances the animation of the Player and every enemy in the phases
+	 * where the level is shown, including tips drawn over a paused level
 	 */
-	public void render(Screen screen) {
-		if (timer != -1) {
-			timer--;
+	private void advanceAnimations() {
+		switch (phase) {
+		case TITLE_SCREEN:
+		case HOW_TO_PLAY:
+		case FAILING:
+		case GAME_OVER:
+			return;
+		default:
+			break;
 		}
+
+		for (int i = 0; i < allEnemies.size(); i++) {
+			allEnemies.get(i).advanceAnimation();
+		}
+		player.advanceAnimation();
+	}
+
+	/**
+	 * Remembers where the stage, Player and every enemy are before they are
+	 * updated, so the frame can be interpolated between the last two updates
+	 */
+	private void storePreviousPositions() {
+		stage.storePreviousRotation();
+		player.storePreviousPosition();
+		for (int i = 0; i < allEnemies.size(); i++) {
+			allEnemies.get(i).storePreviousPosition();
+		}
+	}
+
+	/**
+	 * Records the frame based on the current phase. This switch logic allows
+	 * different items to be drawn for the different phases. Rendering only
+	 * reads the game, so the game runs the same whether or not it is drawn
+	 * 
+	 * @param frame
+	 *            The snapshot to record into, to be passed to items that
+	 *            require rendering
+	 */
+	public void render(FrameSnapshot frame) {
 		switch (phase) {
 		case TITLE_SCREEN:
-			screen.drawTitleScreen();
+			frame.drawTitleScreen();
 			if (invincibilityCheat) {
-				screen.drawCheatNotice();
+				frame.drawCheatNotice();
 			}
 			break;
 		case HOW_TO_PLAY:
-			screen.drawHowToPlay();
+			frame.drawHowToPlay();
 			break;
 		case LEVEL_1_TIP:
-			renderLevel(screen);
-			renderTip(screen, 1);
+			renderLevel(frame);
+			renderTip(frame, 1);
 			break;
 		case LEVEL_2_TIP:
-			renderLevel(screen);
-			renderTip(screen, 2);
+			renderLevel(frame);
+			renderTip(frame, 2);
 			break;
 		case LEVEL_3_TIP:
-			renderLevel(screen);
-			renderTip(screen, 3);
+			renderLevel(frame);
+			renderTip(frame, 3);
 			break;
 		case LEVEL_4_TIP:
-			renderLevel(screen);
-			renderTip(screen, 4);
+			renderLevel(frame);
+			renderTip(frame, 4);
 			break;
 		case LEVEL_5_TIP:
-			renderLevel(screen);
-			renderTip(screen, 5);
+			renderLevel(frame);
+			renderTip(frame, 5);
 			break;
 			
 		case LEVEL_1:
@@ -256,19 +381,19 @@ public class Level {
 		case LEVEL_3_WIN:
 		case LEVEL_4_WIN:
 		case LEVEL_5_WIN:
-			renderLevel(screen);
+			renderLevel(frame);
 			break;
 		case VICTORY:
-			renderLevel(screen);
-			renderTip(screen, 6);
+			renderLevel(frame);
+			renderTip(frame, 6);
 			break;
 		case FAILING:
-			screen.clearScreen();
-			player.render(screen, timer);
+			frame.clearScreen();
+			player.render(frame, timer);
 			break;
 		case GAME_OVER:
-			screen.clearScreen();
-			renderTip(screen, 7);
+			frame.clearScreen();
+			renderTip(frame, 7);
 			break;
 		default:
 			break;
@@ -360,7 +485,8 @@ public class Level {
 			break;
 		case LEVEL_5_TIP:
 			phase = Phase.LEVEL_5_INTRO;
-			theWitch = new Witch(Direction.LEFT, Action.WALK, 800, player.getX(), Enemy.NOCOLOUR);
+			theWitch = new Witch(Direction.LEFT, Action.WALK, 800, player.getX(), Enemy.NOCOLOUR, random.split());
+			theWitch.setSpawnQueue(spawns);
 			allEnemies.add(theWitch);
 			theWitch.canCast(true);
 			timer = 180; 
@@ -450,15 +576,15 @@ public class Level {
 	public void inputRecieved(int keyCode) {
 		switch (phase) {
 		case TITLE_SCREEN:
-			if (keyCode == KeyEvent.VK_Z) {
+			if (keyCode == Keys.Z) {
 				nextPhase();
 				break;
 			}
-			if (keyCode == KeyEvent.VK_X) {
+			if (keyCode == Keys.X) {
 				phase = Phase.HOW_TO_PLAY;
 				break;
 			}
-			if (keyCode == KeyEvent.VK_I) {
+			if (keyCode == Keys.I) {
 				invincibilityCheat = ! invincibilityCheat;
 			}
 			break;
@@ -477,15 +603,36 @@ public class Level {
 	}
 
 	/**
-	 * Calls the Screen class with the number of a notification to draw
+	 * Leaves the current phase for a stress test: the fourth level filled
+	 * with a horde of enemies spread around the ring. The Player is made
+	 * invincible so that the horde can run for as long as required
+	 *
+	 * @param count
+	 *            The number of enemies in the horde
+	 */
+	public void startHorde(int count) {
+		phase = Phase.LEVEL_4;
+		timer = -1;
+		isStageFive = false;
+		invincibilityCheat = true;
+		resetLevel();
+		player.enableInput();
+		colourspace = new Colourspace();
+		colourspace.form();
+		startEffect = null;
+		generateHorde(count);
+	}
+
+	/**
+	 * Records the number of a notification to draw
 	 * 
-	 * @param screen
-	 *            The Screen object, so that it can be called
+	 * @param frame
+	 *            The snapshot to record into
 	 * @param tipNumber
 	 *            A number that associates with a tip from the sprite sheet
 	 */
-	private void renderTip(Screen screen, int tipNumber) {
-		screen.drawTip(tipNumber);
+	private void renderTip(FrameSnapshot frame, int tipNumber) {
+		frame.drawTip(tipNumber);
 	}
 
 	/**
@@ -493,14 +640,14 @@ public class Level {
 	 */
 	private void generateLevelOne() {
 		colourspace = new Colourspace();
-		allEnemies.add(new Porcupine(Direction.LEFT, Action.WALK, 500, player.getX(), Enemy.RED));
-		allEnemies.add(new Porcupine(Direction.RIGHT, Action.WALK, 4700, player.getX(), Enemy.BLUE));
-		allEnemies.add(new Porcupine(Direction.LEFT, Action.WALK, 4000, player.getX(), Enemy.RED));
-		allEnemies.add(new Porcupine(Direction.RIGHT, Action.WALK, 2000, player.getX(), Enemy.BLUE));
-		allEnemies.add(new Porcupine(Direction.LEFT, Action.WALK, 1000, player.getX(), Enemy.RED));
-		allEnemies.add(new Porcupine(Direction.RIGHT, Action.WALK, 1600, player.getX(), Enemy.BLUE));
-		allEnemies.add(new Porcupine(Direction.LEFT, Action.WALK, 2800, player.getX(), Enemy.RED));
-		allEnemies.add(new Porcupine(Direction.RIGHT, Action.WALK, 3200, player.getX(), Enemy.BLUE));
+		allEnemies.add(new Porcupine(Direction.LEFT, Action.WALK, 500, player.getX(), Enemy.RED, random.split()));
+		allEnemies.add(new Porcupine(Direction.RIGHT, Action.WALK, 4700, player.getX(), Enemy.BLUE, random.split()));
+		allEnemies.add(new Porcupine(Direction.LEFT, Action.WALK, 4000, player.getX(), Enemy.RED, random.split()));
+		allEnemies.add(new Porcupine(Direction.RIGHT, Action.WALK, 2000, player.getX(), Enemy.BLUE, random.split()));
+		allEnemies.add(new Porcupine(Direction.LEFT, Action.WALK, 1000, player.getX(), Enemy.RED, random.split()));
+		allEnemies.add(new Porcupine(Direction.RIGHT, Action.WALK, 1600, player.getX(), Enemy.BLUE, random.split()));
+		allEnemies.add(new Porcupine(Direction.LEFT, Action.WALK, 2800, player.getX(), Enemy.RED, random.split()));
+		allEnemies.add(new Porcupine(Direction.RIGHT, Action.WALK, 3200, player.getX(), Enemy.BLUE, random.split()));
 	}
 
 	/**
@@ -508,14 +655,14 @@ public class Level {
 	 */
 	private void generateLevelTwo() {
 		colourspace = new Colourspace();
-		allEnemies.add(new Hornet(Direction.LEFT, Action.WALK, 3900, player.getX(), Enemy.RED));
-		allEnemies.add(new Hornet(Direction.RIGHT, Action.WALK, 1900, player.getX(), Enemy.BLUE));
-		allEnemies.add(new Hornet(Direction.LEFT, Action.WALK, 400, player.getX(), Enemy.BLUE));
-		allEnemies.add(new Hornet(Direction.RIGHT, Action.WALK, 4700, player.getX(), Enemy.RED));
-		allEnemies.add(new Porcupine(Direction.LEFT, Action.WALK, 2500, player.getX(), Enemy.RED));
-		allEnemies.add(new Porcupine(Direction.RIGHT, Action.WALK, 900, player.getX(), Enemy.BLUE));
-		allEnemies.add(new Porcupine(Direction.LEFT, Action.WALK, 3100, player.getX(), Enemy.RED));
-		allEnemies.add(new Porcupine(Direction.RIGHT, Action.WALK, 3300, player.getX(), Enemy.BLUE));
+		allEnemies.add(new Hornet(Direction.LEFT, Action.WALK, 3900, player.getX(), Enemy.RED, random.split()));
+		allEnemies.add(new Hornet(Direction.RIGHT, Action.WALK, 1900, player.getX(), Enemy.BLUE, random.split()));
+		allEnemies.add(new Hornet(Direction.LEFT, Action.WALK, 400, player.getX(), Enemy.BLUE, random.split()));
+		allEnemies.add(new Hornet(Direction.RIGHT, Action.WALK, 4700, player.getX(), Enemy.RED, random.split()));
+		allEnemies.add(new Porcupine(Direction.LEFT, Action.WALK, 2500, player.getX(), Enemy.RED, random.split()));
+		allEnemies.add(new Porcupine(Direction.RIGHT, Action.WALK, 900, player.getX(), Enemy.BLUE, random.split()));
+		allEnemies.add(new Porcupine(Direction.LEFT, Action.WALK, 3100, player.getX(), Enemy.RED, random.split()));
+		allEnemies.add(new Porcupine(Direction.RIGHT, Action.WALK, 3300, player.getX(), Enemy.BLUE, random.split()));
 		
 	}
 	
@@ -524,14 +671,14 @@ public class Level {
 	 */
 	private void generateLevelThree() {
 		colourspace = new Colourspace();
-		allEnemies.add(new Scorpion(Direction.LEFT, Action.WALK, 600, player.getX(), Enemy.RED));
-		allEnemies.add(new Scorpion(Direction.RIGHT, Action.WALK, 4500, player.getX(), Enemy.BLUE));
-		allEnemies.add(new Scorpion(Direction.LEFT, Action.WALK, 3200, player.getX(), Enemy.RED));
-		allEnemies.add(new Hornet(Direction.RIGHT, Action.WALK, 2800, player.getX(), Enemy.BLUE));
-		allEnemies.add(new Hornet(Direction.LEFT, Action.WALK, 4000, player.getX(), Enemy.RED));
-		allEnemies.add(new Porcupine(Direction.RIGHT, Action.WALK, 1100, player.getX(), Enemy.BLUE));
-		allEnemies.add(new Porcupine(Direction.LEFT, Action.WALK, 1300, player.getX(), Enemy.RED));
-		allEnemies.add(new Porcupine(Direction.RIGHT, Action.WALK, 3900, player.getX(), Enemy.BLUE));
+		allEnemies.add(new Scorpion(Direction.LEFT, Action.WALK, 600, player.getX(), Enemy.RED, random.split()));
+		allEnemies.add(new Scorpion(Direction.RIGHT, Action.WALK, 4500, player.getX(), Enemy.BLUE, random.split()));
+		allEnemies.add(new Scorpion(Direction.LEFT, Action.WALK, 3200, player.getX(), Enemy.RED, random.split()));
+		allEnemies.add(new Hornet(Direction.RIGHT, Action.WALK, 2800, player.getX(), Enemy.BLUE, random.split()));
+		allEnemies.add(new Hornet(Direction.LEFT, Action.WALK, 4000, player.getX(), Enemy.RED, random.split()));
+		allEnemies.add(new Porcupine(Direction.RIGHT, Action.WALK, 1100, player.getX(), Enemy.BLUE, random.split()));
+		allEnemies.add(new Porcupine(Direction.LEFT, Action.WALK, 1300, player.getX(), Enemy.RED, random.split()));
+		allEnemies.add(new Porcupine(Direction.RIGHT, Action.WALK, 3900, player.getX(), Enemy.BLUE, random.split()));
 	}
 	
 	/**
@@ -539,14 +686,14 @@ public class Level {
 	 */
 	private void generateLevelFour() {
 		colourspace = new Colourspace();
-		allEnemies.add(new Golem(Direction.RIGHT, Action.WALK, 4800, player.getX(), Enemy.RED));
-		allEnemies.add(new Scorpion(Direction.RIGHT, Action.WALK, 700, player.getX(), Enemy.BLUE));
-		allEnemies.add(new Scorpion(Direction.LEFT, Action.WALK, 3200, player.getX(), Enemy.RED));
-		allEnemies.add(new Porcupine(Direction.RIGHT, Action.WALK, 1500, player.getX(), Enemy.BLUE));
-		allEnemies.add(new Porcupine(Direction.LEFT, Action.WALK, 2900, player.getX(), Enemy.RED));
-		allEnemies.add(new Hornet(Direction.RIGHT, Action.WALK, 1100, player.getX(), Enemy.BLUE));
-		allEnemies.add(new Hornet(Direction.LEFT, Action.WALK, 2000, player.getX(), Enemy.RED));
-		allEnemies.add(new Hornet(Direction.RIGHT, Action.WALK, 2600, player.getX(), Enemy.BLUE));
+		allEnemies.add(new Golem(Direction.RIGHT, Action.WALK, 4800, player.getX(), Enemy.RED, random.split()));
+		allEnemies.add(new Scorpion(Direction.RIGHT, Action.WALK, 700, player.getX(), Enemy.BLUE, random.split()));
+		allEnemies.add(new Scorpion(Direction.LEFT, Action.WALK, 3200, player.getX(), Enemy.RED, random.split()));
+		allEnemies.add(new Porcupine(Direction.RIGHT, Action.WALK, 1500, player.getX(), Enemy.BLUE, random.split()));
+		allEnemies.add(new Porcupine(Direction.LEFT, Action.WALK, 2900, player.getX(), Enemy.RED, random.split()));
+		allEnemies.add(new Hornet(Direction.RIGHT, Action.WALK, 1100, player.getX(), Enemy.BLUE, random.split()));
+		allEnemies.add(new Hornet(Direction.LEFT, Action.WALK, 2000, player.getX(), Enemy.RED, random.split()));
+		allEnemies.add(new Hornet(Direction.RIGHT, Action.WALK, 2600, player.getX(), Enemy.BLUE, random.split()));
 	}
 	
 	/**
@@ -554,12 +701,12 @@ public class Level {
 	 */
 	private void generateLevelFiveA() {
 		colourspace = new Colourspace();
-		allEnemies.add(new Porcupine(Direction.RIGHT, Action.WALK, 500, player.getX(), Enemy.BLUE));
-		allEnemies.add(new Hornet(Direction.LEFT, Action.WALK, 2000, player.getX(), Enemy.RED));
-		allEnemies.add(new Porcupine(Direction.RIGHT, Action.WALK, 4700, player.getX(), Enemy.BLUE));
-		allEnemies.add(new Hornet(Direction.RIGHT, Action.WALK, 1300, player.getX(), Enemy.BLUE));
-		allEnemies.add(new Porcupine(Direction.LEFT, Action.WALK, 2500, player.getX(), Enemy.RED));
-		allEnemies.add(new Hornet(Direction.RIGHT, Action.WALK, 3700, player.getX(), Enemy.BLUE));
+		allEnemies.add(new Porcupine(Direction.RIGHT, Action.WALK, 500, player.getX(), Enemy.BLUE, random.split()));
+		allEnemies.add(new Hornet(Direction.LEFT, Action.WALK, 2000, player.getX(), Enemy.RED, random.split()));
+		allEnemies.add(new Porcupine(Direction.RIGHT, Action.WALK, 4700, player.getX(), Enemy.BLUE, random.split()));
+		allEnemies.add(new Hornet(Direction.RIGHT, Action.WALK, 1300, player.getX(), Enemy.BLUE, random.split()));
+		allEnemies.add(new Porcupine(Direction.LEFT, Action.WALK, 2500, player.getX(), Enemy.RED, random.split()));
+		allEnemies.add(new Hornet(Direction.RIGHT, Action.WALK, 3700, player.getX(), Enemy.BLUE, random.split()));
 	}
 	
 	/**
@@ -567,18 +714,18 @@ public class Level {
 	 */
 	private void generateLevelFiveB() {
 		colourspace.form();
-		allEnemies.add(new Porcupine(Direction.LEFT, Action.WALK, 4000, player.getX(), Enemy.RED));
-		allEnemies.add(new Porcupine(Direction.RIGHT, Action.WALK, 2000, player.getX(), Enemy.BLUE));
-		allEnemies.add(new Porcupine(Direction.LEFT, Action.WALK, 1100, player.getX(), Enemy.RED));
-		allEnemies.add(new Porcupine(Direction.RIGHT, Action.WALK, 4600, player.getX(), Enemy.BLUE));
-		allEnemies.add(new Hornet(Direction.LEFT, Action.WALK, 800, player.getX(), Enemy.RED));
-		allEnemies.add(new Hornet(Direction.RIGHT, Action.WALK, 1600, player.getX(), Enemy.BLUE));
-		allEnemies.add(new Hornet(Direction.LEFT, Action.WALK, 3100, player.getX(), Enemy.RED));
-		allEnemies.add(new Hornet(Direction.RIGHT, Action.WALK, 4200, player.getX(), Enemy.BLUE));
-		allEnemies.add(new Scorpion(Direction.LEFT, Action.WALK, 500, player.getX(), Enemy.RED));
-		allEnemies.add(new Scorpion(Direction.RIGHT, Action.WALK, 2600, player.getX(), Enemy.BLUE));
-		allEnemies.add(new Scorpion(Direction.LEFT, Action.WALK, 3500, player.getX(), Enemy.RED));
-		allEnemies.add(new Scorpion(Direction.RIGHT, Action.WALK, 4800, player.getX(), Enemy.BLUE));
+		allEnemies.add(new Porcupine(Direction.LEFT, Action.WALK, 4000, player.getX(), Enemy.RED, random.split()));
+		allEnemies.add(new Porcupine(Direction.RIGHT, Action.WALK, 2000, player.getX(), Enemy.BLUE, random.split()));
+		allEnemies.add(new Porcupine(Direction.LEFT, Action.WALK, 1100, player.getX(), Enemy.RED, random.split()));
+		allEnemies.add(new Porcupine(Direction.RIGHT, Action.WALK, 4600, player.getX(), Enemy.BLUE, random.split()));
+		allEnemies.add(new Hornet(Direction.LEFT, Action.WALK, 800, player.getX(), Enemy.RED, random.split()));
+		allEnemies.add(new Hornet(Direction.RIGHT, Action.WALK, 1600, player.getX(), Enemy.BLUE, random.split()));
+		allEnemies.add(new Hornet(Direction.LEFT, Action.WALK, 3100, player.getX(), Enemy.RED, random.split()));
+		allEnemies.add(new Hornet(Direction.RIGHT, Action.WALK, 4200, player.getX(), Enemy.BLUE, random.split()));
+		allEnemies.add(new Scorpion(Direction.LEFT, Action.WALK, 500, player.getX(), Enemy.RED, random.split()));
+		allEnemies.add(new Scorpion(Direction.RIGHT, Action.WALK, 2600, player.getX(), Enemy.BLUE, random.split()));
+		allEnemies.add(new Scorpion(Direction.LEFT, Action.WALK, 3500, player.getX(), Enemy.RED, random.split()));
+		allEnemies.add(new Scorpion(Direction.RIGHT, Action.WALK, 4800, player.getX(), Enemy.BLUE, random.split()));
 	}
 	
 	/**
@@ -586,23 +733,57 @@ public class Level {
 	 */
 	private void generateLevelFiveC() {
 		colourspace.form();
-		allEnemies.add(new Golem(Direction.RIGHT, Action.WALK, 4600, player.getX(), Enemy.RED));
-		allEnemies.add(new Golem(Direction.LEFT, Action.WALK, 400, player.getX(), Enemy.BLUE));
-		allEnemies.add(new Scorpion(Direction.LEFT, Action.WALK, 2000, player.getX(), Enemy.RED));
-		allEnemies.add(new Scorpion(Direction.RIGHT, Action.WALK, 2400, player.getX(), Enemy.BLUE));
-		allEnemies.add(new Scorpion(Direction.LEFT, Action.WALK, 2800, player.getX(), Enemy.RED));
-		allEnemies.add(new Scorpion(Direction.RIGHT, Action.WALK, 3200, player.getX(), Enemy.BLUE));
-		allEnemies.add(new Scorpion(Direction.LEFT, Action.WALK, 3600, player.getX(), Enemy.RED));
-		allEnemies.add(new Scorpion(Direction.RIGHT, Action.WALK, 4000, player.getX(), Enemy.BLUE));
+		allEnemies.add(new Golem(Direction.RIGHT, Action.WALK, 4600, player.getX(), Enemy.RED, random.split()));
+		allEnemies.add(new Golem(Direction.LEFT, Action.WALK, 400, player.getX(), Enemy.BLUE, random.split()));
+		allEnemies.add(new Scorpion(Direction.LEFT, Action.WALK, 2000, player.getX(), Enemy.RED, random.split()));
+		allEnemies.add(new Scorpion(Direction.RIGHT, Action.WALK, 2400, player.getX(), Enemy.BLUE, random.split()));
+		allEnemies.add(new Scorpion(Direction.LEFT, Action.WALK, 2800, player.getX(), Enemy.RED, random.split()));
+		allEnemies.add(new Scorpion(Direction.RIGHT, Action.WALK, 3200, player.getX(), Enemy.BLUE, random.split()));
+		allEnemies.add(new Scorpion(Direction.LEFT, Action.WALK, 3600, player.getX(), Enemy.RED, random.split()));
+		allEnemies.add(new Scorpion(Direction.RIGHT, Action.WALK, 4000, player.getX(), Enemy.BLUE, random.split()));
+	}
+
+	/**
+	 * Fills the level with a horde of enemies spread evenly around the ring,
+	 * cycling through the four kinds of regular enemy, their directions and
+	 * their colours
+	 * 
+	 * @param count
+	 *            The number of enemies to add
+	 */
+	private void generateHorde(int count) {
+		for (int i = 0; i < count; i++) {
+			int position = (int) (i * Ring.UNITS / count);
+			Direction direction = (i % 2 == 0) ? Direction.LEFT : Direction.RIGHT;
+			int colour = (i % 2 == 0) ? Enemy.RED : Enemy.BLUE;
+
+			switch (i % 4) {
+			case 0:
+				allEnemies.add(new Porcupine(direction, Action.WALK, position, player.getX(), colour, random.split()));
+				break;
+			case 1:
+				allEnemies.add(new Hornet(direction, Action.WALK, position, player.getX(), colour, random.split()));
+				break;
+			case 2:
+				allEnemies.add(new Scorpion(direction, Action.WALK, position, player.getX(), colour, random.split()));
+				break;
+			default:
+				allEnemies.add(new Golem(direction, Action.WALK, position, player.getX(), colour, random.split()));
+				break;
+			}
+		}
 	}
 
 	/**
-	 * Calls the update method of all Entities using loops. Various checks are
-	 * done for collision amongst all entities. A secondary outOfBound hit box
-	 * is created for a special case that occurs at position 0 or 5026. Level
-	 * complete, or game over is checked for at the end
+	 * Calls the update method of all Entities using loops. Dead enemies are
+	 * removed first, so that the rest can be updated together by the
+	 * EnemyUpdater. Once every Entity has moved, collisions amongst all
+	 * entities are checked in a single pass. Level complete, or game over is
+	 * checked for at the end
 	 */
 	private void updateLevel() {
+		spawns.drain(spawnHandler);
+
 		player.update();
 		
 		if (startEffect != null) {
@@ -612,58 +793,35 @@ public class Level {
 			}
 		}
 
-		double playerLocation = player.getRotation();
+		int playerLocation = player.getRotation();
 		playerLocationDelta = playerLocation - lastPlayerLocation;
 		lastPlayerLocation = playerLocation;
 
 		stage.update(playerLocationDelta);
 		colourspace.update();
-		
-		switch (entityToAdd) {
-		case NONE:
-			break;
-		case FIREBALL:
-			allEnemies.add(new Fireball(Direction.LEFT, Action.WALK, 400, player.getX(), Enemy.NOCOLOUR));
-			entityToAdd = NONE;
-			break;
-		case LIGHTNING:
-			allEnemies.add(new Lightning(Direction.LEFT, Action.IDLE, 0, player.getX(), Enemy.NOCOLOUR));
-			entityToAdd = NONE;
-			break;
-		default:
-			break;
-				
-		}
-
-		ArrayList<Enemy> enemiesToBeUpdated = new ArrayList<>(allEnemies);
-		ArrayList<Enemy> enemiesToRemove = new ArrayList<>();
 
-		for (Enemy anEnemy : allEnemies) {
+		sweep.setItemCount(allEnemies.size());
+		for (int i = 0; i < allEnemies.size(); i++) {
+			Enemy anEnemy = allEnemies.get(i);
 			if (anEnemy.isDead()) {
-				enemiesToRemove.add(anEnemy);
-				continue;
-			}
-			anEnemy.update(playerLocationDelta);
-			enemiesToBeUpdated.remove(anEnemy);
-
-			Rectangle enemyHitBox = anEnemy.getHitBox();
-			checkCollisions(enemyHitBox, anEnemy, enemiesToRemove, enemiesToBeUpdated);
-			Rectangle outOfBoundsBox = getOutOfBoundsBox(enemyHitBox);
-			if (outOfBoundsBox != null) {
-				checkCollisions(outOfBoundsBox, anEnemy, enemiesToRemove, enemiesToBeUpdated);
+				recycle(anEnemy);
+				allEnemies.remove(i);
 			}
+		}
 
+		int[] newIndexes = allEnemies.compact();
+		if (newIndexes != null) {
+			sweep.renumber(newIndexes, allEnemies.size());
 		}
 
+		updater.update(allEnemies, playerLocationDelta);
+		checkCollisions();
+
 		if (player.isDead()) {
 			phase = Phase.FAILING;
 			timer = 127;
 		}
 
-		for (Enemy enemyToRemove : enemiesToRemove) {
-			allEnemies.remove(enemyToRemove);
-		}
-
 		if (allEnemies.isEmpty()) {
 			switch (phase) {
 			case LEVEL_1:
@@ -698,127 +856,376 @@ public class Level {
 	}
 
 	/**
-	 * This method tests a hit box against all other entities on the level to
-	 * see if an intersection has occurred. This is a separate method because it
-	 * may need to be called twice in an update due to the outOfBounds logic
+	 * Returns a removed enemy to its pool if it is a type that is reused
 	 * 
-	 * @param hitBox
-	 *            The hit box currently being checked
-	 * @param anEnemy
-	 *            The enemy that the hit box belongs to
-	 * @param enemiesToRemove
-	 *            A list for storing enemies if they have been defeated
-	 * @param enemiesToBeUpdated
-	 *            All enemies that have not yet checked for intersection
-	 */
-	private void checkCollisions(Rectangle hitBox, Enemy anEnemy, ArrayList<Enemy> enemiesToRemove, ArrayList<Enemy> enemiesToBeUpdated) {
-		Rectangle playerHitBox = player.getHitBox();
-		if (hitBox.intersects(playerHitBox)) {
-			if (!player.playerHit(anEnemy, anEnemy.getX())) {
-				anEnemy.reverse();
-			}
+	 * @param removedEnemy
+	 *            An enemy that has just been taken off the level
+	 */
+	private void recycle(Enemy removedEnemy) {
+		if (removedEnemy instanceof Fireball) {
+			fireballs.recycle((Fireball) removedEnemy);
+		} else if (removedEnemy instanceof Lightning) {
+			lightnings.recycle((Lightning) removedEnemy);
 		}
-		Rectangle playerOutOfBoundsBox = getOutOfBoundsBox(playerHitBox);
-		if (playerOutOfBoundsBox != null) {
-			if (hitBox.intersects(playerOutOfBoundsBox)) {
+	}
+
+	/**
+	 * Tests every enemy against the Player and the Player's attack, then
+	 * tests enemies against each other. Every hit box is refreshed once at
+	 * the start, and enemy hit boxes are passed to the sweep so that only
+	 * enemies that overlap along the ring are tested against each other.
+	 * Being hit ends the Player's attack, so the attack is checked again
+	 * whenever the Player is hit, and the enemy that hit the Player and every
+	 * one after it escape the attack
+	 */
+	private void checkCollisions() {
+		player.updateHitBox();
+		boolean isAttacking = player.getActionState() == Action.ATTACK;
+		if (isAttacking) {
+			player.updateAttackBox();
+		}
+
+		for (int i = 0; i < allEnemies.size(); i++) {
+			Enemy anEnemy = allEnemies.get(i);
+			anEnemy.updateHitBox();
+			sweep.setBox(i, anEnemy.getHitBoxX(), anEnemy.getHitBoxWidth());
+
+			if (intersects(anEnemy, player)) {
 				if (!player.playerHit(anEnemy, anEnemy.getX())) {
 					anEnemy.reverse();
 				}
+				isAttacking = isAttacking && player.getActionState() == Action.ATTACK;
 			}
-		}
 
-		if (player.getActionState() == Action.ATTACK) {
-			Rectangle playerAttackBox = player.getAttackBox();
-			if (hitBox.intersects(playerAttackBox)) {
+			if (isAttacking && intersects(anEnemy.getHitBoxX(), anEnemy.getHitBoxY(), anEnemy.getHitBoxWidth(), anEnemy.getHitBoxHeight(),
+					player.getAttackBoxX(), player.getAttackBoxY(), player.getAttackBoxWidth(), player.getAttackBoxHeight())) {
 				anEnemy.attackedByPlayer(player.getDirection());
 			}
-			Rectangle playerAttackOutOfBoundsBox = getOutOfBoundsBox(playerAttackBox);
-			if (playerAttackOutOfBoundsBox != null) {
-				if (hitBox.intersects(playerAttackOutOfBoundsBox)) {
-					anEnemy.attackedByPlayer(player.getDirection());
-				}
-			}
 		}
 
-		for (Enemy otherEnemy : enemiesToBeUpdated) {
-			Rectangle otherEnemyHitBox = otherEnemy.getHitBox();
-			if (hitBox.intersects(otherEnemyHitBox)) {
-				anEnemy.reverse();
-				otherEnemy.reverse();
+		collisionCount = 0;
+		sweep.findPairs(enemyCollisions);
+	}
+
+	/**
+	 * @return The current phase of the game
+	 */
+	public Phase getPhase() {
+		return phase;
+	}
+
+	/**
+	 * @return The number of updates run since the Level was created
+	 */
+	public long getTick() {
+		return tick;
+	}
+
+	/**
+	 * @return The seed the Level was created with
+	 */
+	public long getSeed() {
+		return seed;
+	}
+
+	/**
+	 * @return The number of enemies on the level
+	 */
+	public int getEnemyCount() {
+		return allEnemies.count();
+	}
+
+	/**
+	 * @return The number of enemy pairs the sweep passed to the narrow phase
+	 *         in the last update
+	 */
+	public int getCandidatePairCount() {
+		return sweep.getPairCount();
+	}
+
+	/**
+	 * @return The number of enemy pairs whose hit boxes overlapped in the
+	 *         last update
+	 */
+	public int getCollisionCount() {
+		return collisionCount;
+	}
+
+	/**
+	 * Writes the whole state of the game into a buffer, which readState can
+	 * put this or another Level back into. Used by LevelSnapshot, and must be
+	 * called between updates
+	 * 
+	 * @param out
+	 *            The buffer to write to
+	 */
+	public void writeState(ByteBuffer out) {
+		out.putInt(LevelSnapshot.MAGIC);
+		out.putLong(seed);
+		random.writeState(out);
+		out.putLong(tick);
+		LevelSnapshot.putEnum(out, phase);
+		out.putInt(timer);
+		LevelSnapshot.putBoolean(out, isStageFive);
+		LevelSnapshot.putBoolean(out, invincibilityCheat);
+		out.putInt(lastPlayerLocation);
+		out.putInt(playerLocationDelta);
+		out.putInt(collisionCount);
+
+		input.writeState(out);
+		stage.writeState(out);
+		colourspace.writeState(out);
+		LevelSnapshot.putBoolean(out, startEffect != null);
+		if (startEffect != null) {
+			startEffect.writeState(out);
+		}
+		player.writeState(out);
+
+		int witchIndex = -1;
+		out.putInt(allEnemies.size());
+		for (int i = 0; i < allEnemies.size(); i++) {
+			Enemy anEnemy = allEnemies.get(i);
+			out.put((byte) typeOf(anEnemy));
+			anEnemy.writeState(out);
+			if (anEnemy == theWitch) {
+				witchIndex = i;
 			}
-			Rectangle otherEnemyOutOfBoundsBox = getOutOfBoundsBox(otherEnemyHitBox);
-			if (otherEnemyOutOfBoundsBox != null) {
-				if (hitBox.intersects(otherEnemyOutOfBoundsBox)) {
-					anEnemy.reverse();
-					otherEnemy.reverse();
-				}
+		}
+		out.putInt(witchIndex);
+		spawns.writeState(out);
+		sweep.writeState(out);
+	}
+
+	/**
+	 * Puts the game back into the state written by writeState. The Player,
+	 * Stage and other parts of the Level are read into in place, and enemies
+	 * are reused where the same type is in the same slot, so restoring the
+	 * state of the update before creates nothing
+	 * 
+	 * @param in
+	 *            The buffer to read from
+	 */
+	public void readState(ByteBuffer in) {
+		if (in.getInt() != LevelSnapshot.MAGIC) {
+			throw new IllegalArgumentException("Not a level snapshot");
+		}
+		seed = in.getLong();
+		random.readState(in);
+		tick = in.getLong();
+		phase = LevelSnapshot.getEnum(in, PHASES);
+		timer = in.getInt();
+		isStageFive = LevelSnapshot.getBoolean(in);
+		invincibilityCheat = LevelSnapshot.getBoolean(in);
+		lastPlayerLocation = in.getInt();
+		playerLocationDelta = in.getInt();
+		collisionCount = in.getInt();
+
+		input.readState(in);
+		stage.readState(in);
+		colourspace.readState(in);
+		if (LevelSnapshot.getBoolean(in)) {
+			if (startEffect == null) {
+				startEffect = new StartEffect(0);
 			}
+			startEffect.readState(in);
+		} else {
+			startEffect = null;
 		}
+		player.readState(in);
+
+		readEnemies(in);
+		spawns.readState(in);
+		sweep.readState(in);
 	}
 
 	/**
-	 * Generates the outOfBounds box necessary for determining if a collision
-	 * has occurred near the 0 and 5026 positions. A new rectangle is generated
-	 * based on the intersection with these out of bounds areas. The rectangle
-	 * is relocated and returned. If no intersection occurs then it returns null
+	 * Replaces the enemies on the level with the ones in a snapshot. Enemies
+	 * that are not reused are recycled as if they had been removed
 	 * 
-	 * @param hitBox
-	 *            The hit box that will check for out of bounds intersection
-	 * @return The intersection rectangle, or null if no intersection
+	 * @param in
+	 *            The buffer to read from
 	 */
-	private Rectangle getOutOfBoundsBox(Rectangle hitBox) {
-		Rectangle overlap = null;
-		
-		if (hitBox.intersects(Stage.POSITIVE_BOUNDS)) {
-			overlap = hitBox.intersection(Stage.POSITIVE_BOUNDS);
-			overlap.setLocation(0, (int) overlap.getY());
+	private void readEnemies(ByteBuffer in) {
+		int oldCount = allEnemies.size();
+		if (oldCount > restoredEnemies.length) {
+			restoredEnemies = new Enemy[Math.max(oldCount, restoredEnemies.length * 2)];
 		}
+		for (int i = 0; i < oldCount; i++) {
+			restoredEnemies[i] = allEnemies.get(i);
+		}
+		allEnemies.clear();
 
-		if (hitBox.intersects(Stage.NEGATIVE_BOUNDS)) {
-			overlap = hitBox.intersection(Stage.NEGATIVE_BOUNDS);
-			overlap.setLocation((int) (Stage.CIRCUMFERENCE - overlap.getWidth()), (int) overlap.getY());
+		int count = in.getInt();
+		for (int i = 0; i < count; i++) {
+			int type = in.get();
+			Enemy anEnemy;
+			if (i < oldCount && restoredEnemies[i] != null && typeOf(restoredEnemies[i]) == type) {
+				anEnemy = restoredEnemies[i];
+				restoredEnemies[i] = null;
+			} else {
+				anEnemy = createEnemy(type);
+			}
+			anEnemy.readState(in);
+			allEnemies.add(anEnemy);
+		}
+
+		for (int i = 0; i < oldCount; i++) {
+			if (restoredEnemies[i] != null) {
+				recycle(restoredEnemies[i]);
+				restoredEnemies[i] = null;
+			}
 		}
 
-		return overlap;
+		int witchIndex = in.getInt();
+		theWitch = null;
+		if (witchIndex != -1) {
+			theWitch = (Witch) allEnemies.get(witchIndex);
+			theWitch.setSpawnQueue(spawns);
+		}
 	}
 
 	/**
-	 * Renders the screen, health bar, player and runs a for each to render all
-	 * of the enemies by passing each Entity the Screen object
+	 * Creates an enemy of the given type to read a snapshot into. Everything
+	 * it is created with is replaced by the snapshot, including its random
+	 * number generator
 	 * 
-	 * @param screen
-	 *            The Screen Object for passing to the Entities render methods
+	 * @param type
+	 *            The sprite sheet constant of the enemy's type
+	 * @return The new enemy
 	 */
-	private void renderLevel(Screen screen) {
-		stage.render(screen, isStageFive);
-		screen.drawColourspace(colourspace);
-		screen.drawHealthBar(player.getHealth());
-		
-		for (Enemy anEnemy : allEnemies) {
-			anEnemy.render(screen);
+	private Enemy createEnemy(int type) {
+		SplitRandom enemyRandom = new SplitRandom(0);
+		switch (type) {
+		case Sprites.PORCUPINE:
+			return new Porcupine(Direction.LEFT, Action.IDLE, 0, 0, Enemy.NOCOLOUR, enemyRandom);
+		case Sprites.HORNET:
+			return new Hornet(Direction.LEFT, Action.IDLE, 0, 0, Enemy.NOCOLOUR, enemyRandom);
+		case Sprites.SCORPION:
+			return new Scorpion(Direction.LEFT, Action.IDLE, 0, 0, Enemy.NOCOLOUR, enemyRandom);
+		case Sprites.GOLEM:
+			return new Golem(Direction.LEFT, Action.IDLE, 0, 0, Enemy.NOCOLOUR, enemyRandom);
+		case Sprites.WITCH:
+			return new Witch(Direction.LEFT, Action.IDLE, 0, 0, Enemy.NOCOLOUR, enemyRandom);
+		case Sprites.FIREBALL:
+			return fireballs.obtain(Direction.LEFT, Action.IDLE, 0, 0, Enemy.NOCOLOUR, enemyRandom);
+		case Sprites.LIGHTNING:
+			return lightnings.obtain(Direction.LEFT, Action.IDLE, 0, 0, Enemy.NOCOLOUR, enemyRandom);
+		default:
+			throw new IllegalArgumentException("Unknown enemy type " + type);
 		}
+	}
 
-		player.render(screen);
-		screen.drawMinimap(allEnemies);
-		if (startEffect != null) {
-			startEffect.render(screen);
+	/**
+	 * Names the type of an enemy in a snapshot by its sprite sheet constant
+	 * 
+	 * @param anEnemy
+	 *            The enemy
+	 * @return The sprite sheet constant of its type
+	 */
+	private static int typeOf(Enemy anEnemy) {
+		if (anEnemy instanceof Porcupine) {
+			return Sprites.PORCUPINE;
+		} else if (anEnemy instanceof Hornet) {
+			return Sprites.HORNET;
+		} else if (anEnemy instanceof Scorpion) {
+			return Sprites.SCORPION;
+		} else if (anEnemy instanceof Golem) {
+			return Sprites.GOLEM;
+		} else if (anEnemy instanceof Witch) {
+			return Sprites.WITCH;
+		} else if (anEnemy instanceof Fireball) {
+			return Sprites.FIREBALL;
+		} else if (anEnemy instanceof Lightning) {
+			return Sprites.LIGHTNING;
 		}
-		
+		throw new IllegalArgumentException("Unknown enemy " + anEnemy.getName());
 	}
-	
+
 	/**
-	 * Called by the Witch enemy when she casts a spell. It identifies
-	 * the spell being cast an queues it for creation in the next update.
+	 * Checks whether the hit boxes of two Entities overlap
 	 * 
-	 * @param spell the spell to be cast.
+	 * @param entity
+	 *            The first Entity
+	 * @param otherEntity
+	 *            The second Entity
+	 * @return true if the hit boxes overlap
 	 */
-	public static void witchCastSpell(int spell) {
-		if (spell == Witch.FIREBALL) {
-			entityToAdd = FIREBALL;
+	private static boolean intersects(Entity entity, Entity otherEntity) {
+		return intersects(entity.getHitBoxX(), entity.getHitBoxY(), entity.getHitBoxWidth(), entity.getHitBoxHeight(),
+				otherEntity.getHitBoxX(), otherEntity.getHitBoxY(), otherEntity.getHitBoxWidth(), otherEntity.getHitBoxHeight());
+	}
+
+	/**
+	 * Checks whether two boxes overlap. Along the x axis the boxes are
+	 * compared around the ring, so boxes on either side of the 0 and
+	 * Ring.UNITS positions overlap without any special case. Empty boxes
+	 * never overlap
+	 * 
+	 * @return true if the boxes overlap
+	 */
+	private static boolean intersects(int x, int y, int width, int height, int otherX, int otherY, int otherWidth, int otherHeight) {
+		if (width <= 0 || height <= 0 || otherWidth <= 0 || otherHeight <= 0) {
+			return false;
+		}
+		if (y >= otherY + otherHeight || otherY >= y + height) {
+			return false;
 		}
+		return SweepAndPrune.overlapsOnRing(x, width, otherX, otherWidth);
+	}
+
+	/**
+	 * Adds the entities requested through the spawn queue to the field
+	 */
+	private class LevelSpawnHandler implements SpawnQueue.SpawnHandler {
+		@Override
+		public void spawn(int type, int position, int colour) {
+			switch (type) {
+			case SpawnQueue.FIREBALL:
+				allEnemies.add(fireballs.obtain(Direction.LEFT, Action.WALK, position, player.getX(), colour, random.split()));
+				break;
+			case SpawnQueue.LIGHTNING:
+				allEnemies.add(lightnings.obtain(Direction.LEFT, Action.IDLE, position, player.getX(), colour, random.split()));
+				break;
+			default:
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Turns around any two enemies found by the sweep whose hit boxes overlap
+	 */
+	private class EnemyPairHandler implements SweepAndPrune.PairHandler {
+		@Override
+		public void checkPair(int first, int second) {
+			if (intersects(allEnemies.get(first), allEnemies.get(second))) {
+				collisionCount++;
+				allEnemies.get(first).reverse();
+				allEnemies.get(second).reverse();
+			}
+		}
+	}
+
+	/**
+	 * Renders the screen, health bar, player and runs a for each to render all
+	 * of the enemies by passing each Entity the frame snapshot
+	 * 
+	 * @param frame
+	 *            The snapshot for passing to the Entities render methods
+	 */
+	private void renderLevel(FrameSnapshot frame) {
+		stage.render(frame, isStageFive);
+		frame.drawColourspace(colourspace);
+		frame.drawHealthBar(player.getHealth());
 		
-		if (spell == Witch.LIGHTNING) {
-			entityToAdd = LIGHTNING;
+		for (int i = 0; i < allEnemies.size(); i++) {
+			allEnemies.get(i).render(frame);
+		}
+
+		player.render(frame);
+		frame.drawMinimap(allEnemies);
+		if (startEffect != null) {
+			startEffect.render(frame);
 		}
 		
 	}
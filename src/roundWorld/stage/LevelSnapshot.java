@@ -0,0 +1,141 @@
+package roundWorld.stage;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * A copy of the whole state of a Level, taken between two updates, that the
+ * Level can later be put back into. Restoring a snapshot and running the same
+ * input again plays out exactly as it did the first time, so snapshots can be
+ * used for save states, for stepping back while debugging, or for rolling the
+ * game back and simulating it forward again
+ *
+ * Every class that holds game state writes its own fields into a ByteBuffer in
+ * writeState, and reads them back in the same order in readState. Numbers are
+ * written at their full width, booleans as one byte, and enum constants as the
+ * byte of their ordinal, or -1 for null. The buffer is kept and reused, and is
+ * only replaced by a larger one when the state no longer fits, so a snapshot
+ * can be taken every update without creating any objects
+ *
+ * @author Andrew Black
+ *
+ */
+public class LevelSnapshot {
+	/**
+	 * The int that every snapshot starts with, "RWS1" in ASCII
+	 */
+	public static final int MAGIC = 0x52575331;
+	/**
+	 * The number of bytes a snapshot starts out with room for
+	 */
+	public static final int DEFAULT_CAPACITY = 4096;
+
+	/**
+	 * Holds the last state captured, from the start of the buffer up to its
+	 * limit
+	 */
+	private ByteBuffer buffer;
+
+	/**
+	 * Constructor creates an empty snapshot with the default capacity
+	 */
+	public LevelSnapshot() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Constructor creates an empty snapshot
+	 *
+	 * @param capacity
+	 *            The number of bytes to start out with room for
+	 */
+	public LevelSnapshot(int capacity) {
+		buffer = ByteBuffer.allocate(Math.max(capacity, 64));
+		buffer.limit(0);
+	}
+
+	/**
+	 * Copies the state of a Level into the snapshot, replacing whatever it
+	 * held before. Must be called between updates
+	 *
+	 * @param level
+	 *            The Level to copy
+	 */
+	public void capture(Level level) {
+		while (true) {
+			buffer.clear();
+			try {
+				level.writeState(buffer);
+				buffer.flip();
+				return;
+			} catch (BufferOverflowException e) {
+				buffer = ByteBuffer.allocate(buffer.capacity() * 2);
+			}
+		}
+	}
+
+	/**
+	 * Puts a Level back into the state that was last captured. The snapshot
+	 * is left as it is, so it can be restored any number of times
+	 *
+	 * @param level
+	 *            The Level to restore, which need not be the one captured
+	 */
+	public void restore(Level level) {
+		if (buffer.limit() == 0) {
+			throw new IllegalStateException("No state has been captured");
+		}
+		buffer.rewind();
+		level.readState(buffer);
+	}
+
+	/**
+	 * @return The number of bytes the last state captured takes up
+	 */
+	public int size() {
+		return buffer.limit();
+	}
+
+	/**
+	 * @return A read only view of the last state captured, for saving it
+	 *         elsewhere. Passing the view to Level.readState restores it
+	 */
+	public ByteBuffer getBytes() {
+		return buffer.asReadOnlyBuffer();
+	}
+
+	/**
+	 * Writes a boolean as one byte
+	 */
+	public static void putBoolean(ByteBuffer out, boolean value) {
+		out.put((byte) (value ? 1 : 0));
+	}
+
+	/**
+	 * @return A boolean written by putBoolean
+	 */
+	public static boolean getBoolean(ByteBuffer in) {
+		return in.get() != 0;
+	}
+
+	/**
+	 * Writes an enum constant as the byte of its ordinal, or -1 for null
+	 */
+	public static void putEnum(ByteBuffer out, Enum<?> value) {
+		out.put((byte) (value == null ? -1 : value.ordinal()));
+	}
+
+	/**
+	 * Reads an enum constant written by putEnum
+	 *
+	 * @param values
+	 *            Every constant of the enum in order. Enums return a new
+	 *            copy from values() each time, so callers keep their own
+	 * @return The constant, or null
+	 */
+	public static <E extends Enum<E>> E getEnum(ByteBuffer in, E[] values) {
+		int ordinal = in.get();
+		return (ordinal < 0 ? null : values[ordinal]);
+	}
+
+}
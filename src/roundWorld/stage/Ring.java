@@ -0,0 +1,73 @@
+package roundWorld.stage;
+
+/**
+ * Converts positions around the stage to and from ring angles. A ring angle
+ * is an int in which the full range of 2^32 values is one turn of the stage,
+ * so adding or subtracting angles wraps around the ring by itself through
+ * integer overflow and an angle never needs to be brought back into range.
+ * Positions that are stepped by whole angles also never drift, however many
+ * turns are made
+ *
+ * Distances around the ring are measured in units, of which there are
+ * Stage.CIRCUMFERENCE in one turn, and the screen works in radians
+ *
+ * @author Andrew Black
+ *
+ */
+public class Ring {
+	/**
+	 * The number of units in one turn of the ring
+	 */
+	public static final double UNITS = Stage.CIRCUMFERENCE;
+	/**
+	 * The number of ring angles in one turn
+	 */
+	private static final double TURN = 4294967296.0;
+	/**
+	 * Scales for converting ring angles to and from units and radians
+	 */
+	private static final double ANGLES_PER_UNIT = TURN / UNITS, UNITS_PER_ANGLE = UNITS / TURN,
+			RADIANS_PER_ANGLE = (2 * Math.PI) / TURN;
+
+	/**
+	 * The ring is only used through its static methods
+	 */
+	private Ring() {
+	}
+
+	/**
+	 * Converts a distance in units to a ring angle. Distances outside of one
+	 * turn, including negative ones, are wrapped onto the ring
+	 *
+	 * @param units
+	 *            The distance around the ring
+	 * @return The ring angle
+	 */
+	public static int fromUnits(double units) {
+		return (int) Math.round(units * ANGLES_PER_UNIT);
+	}
+
+	/**
+	 * Converts a ring angle to a distance in units
+	 *
+	 * @param angle
+	 *            The ring angle
+	 * @return The distance around the ring, from 0 up to but not including
+	 *         UNITS
+	 */
+	public static double toUnits(int angle) {
+		return (angle & 0xffffffffL) * UNITS_PER_ANGLE;
+	}
+
+	/**
+	 * Converts a ring angle to radians
+	 *
+	 * @param angle
+	 *            The ring angle
+	 * @return The angle in radians, from -PI up to but not including PI
+	 */
+	public static double toRadians(int angle) {
+		return angle * RADIANS_PER_ANGLE;
+	}
+
+}
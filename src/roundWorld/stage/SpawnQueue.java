@@ -0,0 +1,161 @@
+package roundWorld.stage;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Collects requests for entities to be added to a Level. Any number of
+ * requests can be made between updates, from any thread, and Level takes them
+ * all in one batch at the start of its next update. Requests are held in two
+ * sets of arrays: new requests go into one set while the other is handed to
+ * Level, so requests made during a drain wait for the following update
+ * instead of being lost, and no objects are created per request
+ *
+ * @author Andrew Black
+ *
+ */
+public class SpawnQueue {
+	/**
+	 * The entities that can be requested
+	 */
+	public static final int FIREBALL = 0, LIGHTNING = 1;
+
+	/**
+	 * Called for each request when the queue is drained
+	 */
+	public interface SpawnHandler {
+		/**
+		 * @param type
+		 *            The type of entity requested
+		 * @param position
+		 *            Where on the stage it should be placed
+		 * @param colour
+		 *            The colour it should be given
+		 */
+		void spawn(int type, int position, int colour);
+	}
+
+	/**
+	 * The type, position and colour of each request waiting for the next
+	 * drain, and the number of requests waiting
+	 */
+	private int[] types, positions, colours;
+	private int count;
+	/**
+	 * The requests being handed to Level by the current drain. Only the thread
+	 * running the drain touches these
+	 */
+	private int[] drainTypes, drainPositions, drainColours;
+
+	/**
+	 * Constructor creates an empty queue
+	 */
+	public SpawnQueue() {
+		types = new int[8];
+		positions = new int[8];
+		colours = new int[8];
+		drainTypes = new int[8];
+		drainPositions = new int[8];
+		drainColours = new int[8];
+		count = 0;
+	}
+
+	/**
+	 * Requests an entity to be added in the next update. Safe to call from
+	 * any thread
+	 *
+	 * @param type
+	 *            The type of entity, FIREBALL or LIGHTNING
+	 * @param position
+	 *            Where on the stage it should be placed
+	 * @param colour
+	 *            The colour it should be given
+	 */
+	public synchronized void add(int type, int position, int colour) {
+		if (count == types.length) {
+			types = Arrays.copyOf(types, count * 2);
+			positions = Arrays.copyOf(positions, count * 2);
+			colours = Arrays.copyOf(colours, count * 2);
+		}
+		types[count] = type;
+		positions[count] = position;
+		colours[count] = colour;
+		count++;
+	}
+
+	/**
+	 * Takes every waiting request and passes each to the handler, in the
+	 * order they were made. The lock is only held while the requests are
+	 * taken, so the handler may itself add requests for the next drain
+	 *
+	 * @param handler
+	 *            Receives each request
+	 */
+	public void drain(SpawnHandler handler) {
+		int drained;
+		synchronized (this) {
+			drained = count;
+			if (drained == 0) {
+				return;
+			}
+
+			int[] swap = drainTypes;
+			drainTypes = types;
+			types = swap;
+			swap = drainPositions;
+			drainPositions = positions;
+			positions = swap;
+			swap = drainColours;
+			drainColours = colours;
+			colours = swap;
+
+			if (types.length < drainTypes.length) {
+				types = new int[drainTypes.length];
+				positions = new int[drainTypes.length];
+				colours = new int[drainTypes.length];
+			}
+			count = 0;
+		}
+
+		for (int i = 0; i < drained; i++) {
+			handler.spawn(drainTypes[i], drainPositions[i], drainColours[i]);
+		}
+	}
+
+	/**
+	 * Throws away every waiting request
+	 */
+	public synchronized void clear() {
+		count = 0;
+	}
+
+	/**
+	 * Writes every waiting request into a level snapshot
+	 *
+	 * @param out
+	 *            The buffer to write to
+	 */
+	public synchronized void writeState(ByteBuffer out) {
+		out.putInt(count);
+		for (int i = 0; i < count; i++) {
+			out.putInt(types[i]);
+			out.putInt(positions[i]);
+			out.putInt(colours[i]);
+		}
+	}
+
+	/**
+	 * Replaces the waiting requests with the ones written by writeState
+	 *
+	 * @param in
+	 *            The buffer to read from
+	 */
+	public synchronized void readState(ByteBuffer in) {
+		count = 0;
+		int waiting = in.getInt();
+		for (int i = 0; i < waiting; i++) {
+			add(in.getInt(), in.getInt(), in.getInt());
+		}
+	}
+
+}
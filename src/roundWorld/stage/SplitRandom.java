@@ -0,0 +1,92 @@
+package roundWorld.stage;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A small, fast source of random numbers for the game, using the SplitMix64
+ * generator. Each Level owns one created from a seed, and splits off a new
+ * generator for every enemy it creates, so all of the randomness in a game
+ * follows from the seed and the order things happened in. Generators are not
+ * shared between threads, so enemies updated in parallel never contend on
+ * one, unlike Math.random
+ *
+ * @author Andrew Black
+ *
+ */
+public class SplitRandom {
+	/**
+	 * The amount the state is advanced by for each number, an odd constant
+	 * close to 2^64 divided by the golden ratio
+	 */
+	private static final long GAMMA = 0x9e3779b97f4a7c15L;
+	/**
+	 * The scale that turns the top 53 bits of a number into a double between
+	 * 0 and 1
+	 */
+	private static final double DOUBLE_UNIT = 1.0 / (1L << 53);
+
+	/**
+	 * The current state, advanced by GAMMA for each number
+	 */
+	private long state;
+
+	/**
+	 * Constructor creates a generator whose numbers are fixed by the seed
+	 *
+	 * @param seed
+	 *            The seed of the generator
+	 */
+	public SplitRandom(long seed) {
+		state = seed;
+	}
+
+	/**
+	 * @return The next random number, from all 64 bit values
+	 */
+	public long nextLong() {
+		state += GAMMA;
+		long z = state;
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * @return The next random number, from 0 up to but not including 1
+	 */
+	public double nextDouble() {
+		return (nextLong() >>> 11) * DOUBLE_UNIT;
+	}
+
+	/**
+	 * Creates a new generator seeded from this one. The numbers it returns
+	 * are unrelated to the ones this generator goes on to return
+	 *
+	 * @return The new generator
+	 */
+	public SplitRandom split() {
+		return new SplitRandom(nextLong());
+	}
+
+	/**
+	 * Writes the state of the generator into a level snapshot
+	 *
+	 * @param out
+	 *            The buffer to write to
+	 */
+	public void writeState(ByteBuffer out) {
+		out.putLong(state);
+	}
+
+	/**
+	 * Reads back the state written by writeState, after which the generator
+	 * returns the same numbers it did after the snapshot was taken
+	 *
+	 * @param in
+	 *            The buffer to read from
+	 */
+	public void readState(ByteBuffer in) {
+		state = in.getLong();
+	}
+
+}
@@ -1,8 +1,8 @@
 package roundWorld.stage;
 
-import java.awt.Rectangle;
+import java.nio.ByteBuffer;
 
-import roundWorld.graphics.Screen;
+import roundWorld.graphics.FrameSnapshot;
 
 /**
  * Holds constants used throughout the Game and keeps track of the current
@@ -46,54 +46,79 @@ public class Stage {
 	 */
 	public static final double CIRCUMFERENCE = (DIAMETER * Math.PI);
 	/**
-	 * The value for the units when moving around the circle, and the radian
-	 * adjustment required for each movement
+	 * The radian adjustment required for each unit moved around the circle
 	 */
-	public static final double UNIT_PER_PIXEL = (CIRCUMFERENCE / 5026), RADIAN_PER_PIXEL = (2 * Math.PI) / CIRCUMFERENCE;
+	public static final double RADIAN_PER_PIXEL = (2 * Math.PI) / CIRCUMFERENCE;
+
 	/**
-	 * Rectangles for checking if an entity is overlapping at the point where
-	 * the circle switches from its circumference value to zero and vice versa
+	 * Tracks the current ring angle that the stage is rotated
 	 */
-	public static final Rectangle POSITIVE_BOUNDS = new Rectangle(5026, -1000, 1000, 1000),
-			NEGATIVE_BOUNDS = new Rectangle(-1000, -1000, 1000, 1000);
-
+	private int stageRotation;
 	/**
-	 * Tracks the current value (in radians) that the stage is rotated
+	 * The rotation at the end of the previous update, so that rendering can
+	 * interpolate between the last two updates
 	 */
-	private double stageRotation;
+	private int previousStageRotation;
 
 	/**
 	 * Constructor initializes the rotation variable
 	 */
 	public Stage() {
 		stageRotation = 0;
+		previousStageRotation = 0;
 	}
 
 	/**
-	 * Calls the Screen object to render the stage based on its current rotation
+	 * Records the stage into the frame based on its current rotation
 	 * 
-	 * @param screen
-	 *            The Screen class
-	 */
-	public void render(Screen screen, boolean isStageFive) {
-		//Frame rate drops at close-to-0 rotations, so band-aid
-		if (stageRotation < 0.001 && stageRotation > -0.001) {
-			screen.drawStage(0.001, isStageFive);
-			return;
-		}
-		screen.drawStage(stageRotation, isStageFive);
+	 * @param frame
+	 *            The snapshot to record into
+	 */
+	public void render(FrameSnapshot frame, boolean isStageFive) {
+		double previous = Ring.toRadians(previousStageRotation);
+		frame.drawStage(previous, previous + Ring.toRadians(stageRotation - previousStageRotation), isStageFive);
+	}
+
+	/**
+	 * Called by Level before each update to remember the current rotation, so
+	 * that the rotation during the update can be interpolated when rendering
+	 */
+	public void storePreviousRotation() {
+		previousStageRotation = stageRotation;
 	}
 
 	/**
 	 * Updates the rotation of the stage based on current location of the Player
 	 * 
 	 * @param playerLocation
-	 *            Amount that the stage should be rotated based on where the
-	 *            player is standing
+	 *            Ring angle that the stage should be rotated based on where
+	 *            the player is standing
 	 */
-	public void update(double playerLocation) {
+	public void update(int playerLocation) {
 		stageRotation -= playerLocation;
 
 	}
 
+	/**
+	 * Writes the rotation of the stage into a level snapshot
+	 * 
+	 * @param out
+	 *            The buffer to write to
+	 */
+	public void writeState(ByteBuffer out) {
+		out.putInt(stageRotation);
+		out.putInt(previousStageRotation);
+	}
+
+	/**
+	 * Reads back the rotation written by writeState
+	 * 
+	 * @param in
+	 *            The buffer to read from
+	 */
+	public void readState(ByteBuffer in) {
+		stageRotation = in.getInt();
+		previousStageRotation = in.getInt();
+	}
+
 }
\ No newline at end of file
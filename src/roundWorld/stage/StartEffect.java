@@ -1,7 +1,9 @@
 package roundWorld.stage;
 
+import java.nio.ByteBuffer;
+
 import roundWorld.Game;
-import roundWorld.graphics.Screen;
+import roundWorld.graphics.FrameSnapshot;
 
 /**
  * The StartEffect appears at the beginning of each stage, where two images
@@ -63,15 +65,15 @@ public class StartEffect {
 	}
 	
 	/**
-	 * Tells the Screen where to draw the effects, if necessary.
+	 * Records where to draw the effects, if necessary.
 	 * 
-	 * @param screen the screen object to draw to.
+	 * @param frame the snapshot to record into.
 	 */
-	public void render(Screen screen) {
+	public void render(FrameSnapshot frame) {
 		if (speed < -30) {
 			return;
 		}
-		screen.drawStartEffect(currentStage, stageX, stageY, startX, startY);
+		frame.drawStartEffect(currentStage, stageX, stageY, startX, startY);
 	}
 	
 	/**
@@ -81,4 +83,32 @@ public class StartEffect {
 	public int getSpeed() {
 		return speed;
 	}
+
+	/**
+	 * Writes the positions and speed of the flyby into a level snapshot.
+	 * @param out The buffer to write to.
+	 */
+	public void writeState(ByteBuffer out) {
+		out.putInt(stageX);
+		out.putInt(stageY);
+		out.putInt(startX);
+		out.putInt(startY);
+		out.putInt(currentStage);
+		out.putInt(speed);
+		out.putInt(speedDelay);
+	}
+
+	/**
+	 * Reads back the variables written by writeState.
+	 * @param in The buffer to read from.
+	 */
+	public void readState(ByteBuffer in) {
+		stageX = in.getInt();
+		stageY = in.getInt();
+		startX = in.getInt();
+		startY = in.getInt();
+		currentStage = in.getInt();
+		speed = in.getInt();
+		speedDelay = in.getInt();
+	}
 }
@@ -0,0 +1,241 @@
+package roundWorld.stage;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A broad phase for collisions between enemies on the ring. Hit boxes are kept
+ * sorted by the x coordinate of their left edge, and a sweep along the sorted
+ * order pairs each box with the boxes that start before it ends. Enemies only
+ * move a little each update, so the order from the previous update is kept and
+ * repaired with an insertion sort, which is close to linear when little has
+ * changed.
+ *
+ * The seam where x wraps from the circumference back to zero is handled by the
+ * sweep itself: left edges are wrapped into the ring's range, and a box that
+ * runs past the end of the ring is also paired with the boxes at the start of
+ * the order. Each pair is passed on once
+ *
+ * @author Andrew Black
+ *
+ */
+public class SweepAndPrune {
+	/**
+	 * Called for each pair of items whose boxes overlap along the ring
+	 */
+	public interface PairHandler {
+		/**
+		 * @param first
+		 *            One item of the pair
+		 * @param second
+		 *            The other item of the pair
+		 */
+		void checkPair(int first, int second);
+	}
+
+	/**
+	 * The items in order of the left edges of their boxes
+	 */
+	private int[] order;
+	/**
+	 * For each item, the left edge of its box wrapped into the ring's range,
+	 * and its width
+	 */
+	private double[] lefts, widths;
+	/**
+	 * The number of items
+	 */
+	private int itemCount;
+	/**
+	 * The number of pairs found by the last sweep
+	 */
+	private int pairCount;
+
+	/**
+	 * Constructor creates an empty sweep
+	 */
+	public SweepAndPrune() {
+		order = new int[64];
+		lefts = new double[64];
+		widths = new double[64];
+		itemCount = 0;
+	}
+
+	/**
+	 * Sets the number of items. Items that are no longer included are
+	 * dropped from the order, and new items are added to the end of it
+	 *
+	 * @param count
+	 *            The number of items, which are numbered from zero
+	 */
+	public void setItemCount(int count) {
+		if (count > order.length) {
+			int length = Math.max(order.length * 2, count);
+			order = Arrays.copyOf(order, length);
+			lefts = Arrays.copyOf(lefts, length);
+			widths = Arrays.copyOf(widths, length);
+		}
+
+		if (count < itemCount) {
+			int kept = 0;
+			for (int i = 0; i < itemCount; i++) {
+				if (order[i] < count) {
+					order[kept++] = order[i];
+				}
+			}
+		} else {
+			for (int item = itemCount; item < count; item++) {
+				order[item] = item;
+			}
+		}
+		itemCount = count;
+	}
+
+	/**
+	 * Renumbers the items to match a compaction of the list they come from.
+	 * Removed items are dropped and the order of the rest is kept. Boxes must
+	 * be set again before the next sweep
+	 *
+	 * @param newIndexes
+	 *            The new number of each item, or -1 if it was removed
+	 * @param count
+	 *            The number of items left
+	 */
+	public void renumber(int[] newIndexes, int count) {
+		int kept = 0;
+		for (int i = 0; i < itemCount; i++) {
+			int newIndex = newIndexes[order[i]];
+			if (newIndex != -1) {
+				order[kept++] = newIndex;
+			}
+		}
+		itemCount = count;
+	}
+
+	/**
+	 * Sets the box of an item for the next sweep
+	 *
+	 * @param item
+	 *            The item the box belongs to
+	 * @param left
+	 *            The x coordinate of the left edge of the box, which may be
+	 *            outside the ring's range near the seam
+	 * @param width
+	 *            The width of the box. Zero for an item that cannot collide
+	 */
+	public void setBox(int item, double left, double width) {
+		lefts[item] = wrap(left);
+		widths[item] = width;
+	}
+
+	/**
+	 * Restores the order of the items by their left edges, then passes every
+	 * pair of items whose boxes overlap along the ring to the handler
+	 *
+	 * @param handler
+	 *            The narrow phase to run on each pair
+	 */
+	public void findPairs(PairHandler handler) {
+		sort();
+		pairCount = 0;
+
+		for (int i = 0; i < itemCount; i++) {
+			int item = order[i];
+			double right = lefts[item] + widths[item];
+
+			for (int j = i + 1; j < itemCount && lefts[order[j]] < right; j++) {
+				handler.checkPair(item, order[j]);
+				pairCount++;
+			}
+
+			double wrappedRight = right - Stage.CIRCUMFERENCE;
+			for (int j = 0; j < i && lefts[order[j]] < wrappedRight; j++) {
+				handler.checkPair(order[j], item);
+				pairCount++;
+			}
+		}
+	}
+
+	/**
+	 * @return The number of pairs passed to the handler by the last sweep
+	 */
+	public int getPairCount() {
+		return pairCount;
+	}
+
+	/**
+	 * Writes the order of the items into a level snapshot. Boxes are set
+	 * again before every sweep, so they are not written
+	 *
+	 * @param out
+	 *            The buffer to write to
+	 */
+	public void writeState(ByteBuffer out) {
+		out.putInt(itemCount);
+		for (int i = 0; i < itemCount; i++) {
+			out.putInt(order[i]);
+		}
+	}
+
+	/**
+	 * Reads back the order written by writeState, so that the next sort
+	 * starts from the order it had when the snapshot was taken
+	 *
+	 * @param in
+	 *            The buffer to read from
+	 */
+	public void readState(ByteBuffer in) {
+		int count = in.getInt();
+		setItemCount(count);
+		for (int i = 0; i < count; i++) {
+			order[i] = in.getInt();
+		}
+	}
+
+	/**
+	 * Checks whether two spans overlap along the ring, including across the
+	 * seam. Spans with no width never overlap
+	 *
+	 * @param left
+	 *            The left edge of the first span
+	 * @param width
+	 *            The width of the first span
+	 * @param otherLeft
+	 *            The left edge of the second span
+	 * @param otherWidth
+	 *            The width of the second span
+	 * @return true if the spans overlap
+	 */
+	public static boolean overlapsOnRing(double left, double width, double otherLeft, double otherWidth) {
+		double distance = wrap(otherLeft - left);
+		return distance < width || Stage.CIRCUMFERENCE - distance < otherWidth;
+	}
+
+	/**
+	 * Insertion sort of the order by left edge
+	 */
+	private void sort() {
+		for (int i = 1; i < itemCount; i++) {
+			int item = order[i];
+			double left = lefts[item];
+			int j = i - 1;
+			while (j >= 0 && lefts[order[j]] > left) {
+				order[j + 1] = order[j];
+				j--;
+			}
+			order[j + 1] = item;
+		}
+	}
+
+	/**
+	 * Wraps an x coordinate into the range from zero to the circumference
+	 */
+	private static double wrap(double x) {
+		double wrapped = x % Stage.CIRCUMFERENCE;
+		if (wrapped < 0) {
+			wrapped += Stage.CIRCUMFERENCE;
+		}
+		return wrapped;
+	}
+
+}